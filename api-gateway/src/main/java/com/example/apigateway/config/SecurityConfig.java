@@ -51,6 +51,7 @@ public class SecurityConfig {
                                 "/api/challenge/next-challenge",
                                 "/api/challenge/previous-challenge",
                                 "/api/challenge/check/**",
+                                "/api/transcript/webhook",
                                 "/api/lessons/list",
                                 "/api/sections/list",
                                 "/api/sections/filter",
@@ -0,0 +1,33 @@
+package com.example.audioservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AudioProcessingConfig {
+    // 0 = one worker per available core
+    @Value("${audio.segment.pool-size:0}")
+    private int poolSize;
+
+    @Value("${audio.segment.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor segmentTaskExecutor() {
+        int workers = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("segment-worker-");
+        // when the queue is full the calling thread cuts the segment itself instead of dropping it
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+}
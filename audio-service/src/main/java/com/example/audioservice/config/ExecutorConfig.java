@@ -0,0 +1,66 @@
+package com.example.audioservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+    @Value("${transcript.submit.threads:4}")
+    private int transcriptSubmitThreads;
+
+    @Value("${transcript.submit.queue-capacity:256}")
+    private int transcriptSubmitQueueCapacity;
+
+    @Value("${transcript.poll.threads:2}")
+    private int transcriptPollThreads;
+
+    @Value("${job-status.threads:2}")
+    private int jobStatusThreads;
+
+    @Value("${job-status.queue-capacity:1024}")
+    private int jobStatusQueueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor transcriptSubmitExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(transcriptSubmitThreads);
+        executor.setMaxPoolSize(transcriptSubmitThreads);
+        executor.setQueueCapacity(transcriptSubmitQueueCapacity);
+        executor.setThreadNamePrefix("transcript-submit-");
+        // when the queue is full the Kafka listener submits itself, which slows consumption down instead of dropping
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // unbounded queue: each tracked transcript has at most one response waiting here
+    @Bean
+    public ThreadPoolTaskExecutor transcriptPollCallbackExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(transcriptPollThreads);
+        executor.setMaxPoolSize(transcriptPollThreads);
+        executor.setThreadNamePrefix("transcript-poll-callback-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor jobStatusDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobStatusThreads);
+        executor.setMaxPoolSize(jobStatusThreads);
+        executor.setQueueCapacity(jobStatusQueueCapacity);
+        executor.setThreadNamePrefix("job-status-dispatch-");
+        // a burst beyond the queue is pushed to the waiting clients by the thread that saw the change
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
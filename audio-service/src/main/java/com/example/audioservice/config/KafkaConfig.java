@@ -2,6 +2,8 @@ package com.example.audioservice.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -42,6 +44,25 @@ public class KafkaConfig {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    @Bean
+    public ProducerFactory<String, byte[]> binaryProducerFactory() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configs.put(ProducerConfig.ACKS_CONFIG, "all");
+        configs.put(ProducerConfig.RETRIES_CONFIG, 3);
+
+        configs.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 30000);
+        configs.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 60000);
+        return new DefaultKafkaProducerFactory<>(configs);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> binaryKafkaTemplate() {
+        return new KafkaTemplate<>(binaryProducerFactory());
+    }
+
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
         Map<String, Object> configs = new HashMap<>();
@@ -59,12 +80,13 @@ public class KafkaConfig {
         return new DefaultKafkaConsumerFactory<>(configs);
     }
     @Bean
-    public ConsumerFactory<String, String> challengeConsumerFactory() {
+    public ConsumerFactory<String, byte[]> challengeConsumerFactory() {
         Map<String, Object> configs = new HashMap<>();
         configs.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configs.put(ConsumerConfig.GROUP_ID_CONFIG, "challenge-group");
         configs.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configs.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // transcript-responses carries TranscriptCodec bytes (older producers sent JSON text)
+        configs.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         configs.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
 
         configs.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 30000);
@@ -75,6 +97,40 @@ public class KafkaConfig {
         return new DefaultKafkaConsumerFactory<>(configs);
     }
     @Bean
+    public ConsumerFactory<String, String> segmentationConsumerFactory() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configs.put(ConsumerConfig.GROUP_ID_CONFIG, "segmentation-group");
+        configs.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configs.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configs.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        configs.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 30000);
+        configs.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, 10000);
+        configs.put(ConsumerConfig.REQUEST_TIMEOUT_MS_CONFIG, 40000);
+        // one lesson per poll; cutting a long lesson can take many minutes between polls
+        configs.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1);
+        configs.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 1800000);
+        return new DefaultKafkaConsumerFactory<>(configs);
+    }
+    @Bean
+    public ConsumerFactory<String, String> broadcastConsumerFactory() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configs.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configs.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // for topics every instance must see in full (status events, cache invalidation): each listener uses its own
+        // throwaway group and only changes after start-up matter
+        configs.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        configs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        configs.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 30000);
+        configs.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, 10000);
+        configs.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1);
+        configs.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 100);
+        return new DefaultKafkaConsumerFactory<>(configs);
+    }
+    @Bean
     public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
@@ -87,13 +143,33 @@ public class KafkaConfig {
         return factory;
     }
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String,String>
+    public ConcurrentKafkaListenerContainerFactory<String,byte[]>
     challengeKafkaListenerContainerFactory(
-            @Qualifier("challengeConsumerFactory") ConsumerFactory<String,String> cf) {
+            @Qualifier("challengeConsumerFactory") ConsumerFactory<String,byte[]> cf) {
+        ConcurrentKafkaListenerContainerFactory<String,byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(cf);
+        factory.setConcurrency(3);
+        return factory;
+    }
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String,String>
+    segmentationKafkaListenerContainerFactory(
+            @Qualifier("segmentationConsumerFactory") ConsumerFactory<String,String> cf) {
         ConcurrentKafkaListenerContainerFactory<String,String> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(cf);
         factory.setConcurrency(3);
         return factory;
     }
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String,String>
+    broadcastKafkaListenerContainerFactory(
+            @Qualifier("broadcastConsumerFactory") ConsumerFactory<String,String> cf) {
+        ConcurrentKafkaListenerContainerFactory<String,String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(cf);
+        factory.setConcurrency(1);
+        return factory;
+    }
 }
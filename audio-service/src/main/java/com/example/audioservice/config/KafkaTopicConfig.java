@@ -35,4 +35,40 @@ public class KafkaTopicConfig {
                 .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_DELETE)
                 .build();
     }
+    @Bean
+    public NewTopic segmentationRequestsTopic() {
+        return TopicBuilder.name("segmentation-requests")
+                .partitions(3)
+                .replicas(3)
+                .config(TopicConfig.RETENTION_MS_CONFIG, "86400000") // 1 day
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_DELETE)
+                .build();
+    }
+    @Bean
+    public NewTopic jobStatusEventsTopic() {
+        return TopicBuilder.name("job-status-events")
+                .partitions(3)
+                .replicas(3)
+                .config(TopicConfig.RETENTION_MS_CONFIG, "3600000") // 1 hour, events are only useful live
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_DELETE)
+                .build();
+    }
+    @Bean
+    public NewTopic challengeChangesTopic() {
+        return TopicBuilder.name("challenge-changes")
+                .partitions(1)
+                .replicas(3)
+                .config(TopicConfig.RETENTION_MS_CONFIG, "3600000") // 1 hour, only read live
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_DELETE)
+                .build();
+    }
+    @Bean
+    public NewTopic catalogChangesTopic() {
+        return TopicBuilder.name("catalog-changes")
+                .partitions(1)
+                .replicas(3)
+                .config(TopicConfig.RETENTION_MS_CONFIG, "3600000") // 1 hour, only read live
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_DELETE)
+                .build();
+    }
 }
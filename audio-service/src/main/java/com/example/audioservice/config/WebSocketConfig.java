@@ -0,0 +1,31 @@
+package com.example.audioservice.config;
+
+import com.example.audioservice.controller.ChallengeCheckSocketHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import java.util.Arrays;
+
+@Configuration
+@EnableWebSocket
+@Slf4j
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+    private final ChallengeCheckSocketHandler challengeCheckSocketHandler;
+    @Value("${challenge.check-socket.allowed-origins:http://localhost:3000}")
+    private String[] allowedOrigins;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        if (Arrays.asList(allowedOrigins).contains("*")) {
+            log.warn("Answer-check socket accepts connections from any origin");
+        }
+        registry.addHandler(challengeCheckSocketHandler, "/api/challenge/check/ws")
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+}
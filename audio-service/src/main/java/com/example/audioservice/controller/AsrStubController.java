@@ -0,0 +1,131 @@
+package com.example.audioservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline stand-in for the AssemblyAI transcript API, enabled with the {@code asr-stub} profile.
+ * Transcripts complete after a fixed delay and the webhook is called the way the real provider does.
+ */
+@Slf4j
+@Profile("asr-stub")
+@RestController
+@RequestMapping("/asr-stub/v2/transcript")
+@RequiredArgsConstructor
+public class AsrStubController {
+    private static final long WORD_MS = 400;
+    private static final long RETENTION_MS = 3_600_000;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${asr-stub.delay-ms:3000}")
+    private long delayMs;
+
+    @Value("${asr-stub.text:the quick brown fox jumps over the lazy dog}")
+    private String text;
+
+    @Value("${asr-stub.repeat:50}")
+    private int repeat;
+
+    private final Map<String, StubTranscript> transcripts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createTranscript(@RequestBody Map<String, Object> body) {
+        long now = System.currentTimeMillis();
+        transcripts.values().removeIf(transcript -> now - transcript.createdAt > RETENTION_MS);
+
+        String id = UUID.randomUUID().toString();
+        StubTranscript transcript = new StubTranscript(now,
+                (String) body.get("webhook_url"),
+                (String) body.get("webhook_auth_header_name"),
+                (String) body.get("webhook_auth_header_value"));
+        transcripts.put(id, transcript);
+        scheduler.schedule(() -> complete(id, transcript), delayMs, TimeUnit.MILLISECONDS);
+        return ResponseEntity.ok(Map.of("id", id, "status", "queued"));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getTranscript(@PathVariable String id) {
+        StubTranscript transcript = transcripts.get(id);
+        if (transcript == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!transcript.completed) {
+            return ResponseEntity.ok(Map.of("id", id, "status", "processing"));
+        }
+        String[] tokens = text.trim().split("\\s+");
+        List<Map<String, Object>> words = new ArrayList<>();
+        StringBuilder fullText = new StringBuilder();
+        long start = 0;
+        for (int i = 0; i < repeat; i++) {
+            for (String token : tokens) {
+                words.add(Map.of("text", token, "start", start, "end", start + WORD_MS - 50, "confidence", 0.95));
+                fullText.append(fullText.isEmpty() ? "" : " ").append(token);
+                start += WORD_MS;
+            }
+        }
+        return ResponseEntity.ok(Map.of("id", id, "status", "completed", "text", fullText.toString(), "words", words));
+    }
+
+    private void complete(String id, StubTranscript transcript) {
+        transcript.completed = true;
+        if (transcript.webhookUrl == null) {
+            return;
+        }
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(transcript.webhookUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                            Map.of("transcript_id", id, "status", "completed"))));
+            if (transcript.headerName != null && transcript.headerValue != null) {
+                request.header(transcript.headerName, transcript.headerValue);
+            }
+            client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> {
+                        if (ex != null) {
+                            log.warn("Stub webhook for {} failed: {}", id, ex.getMessage());
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("Stub webhook for {} failed: {}", id, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static final class StubTranscript {
+        private final long createdAt;
+        private final String webhookUrl;
+        private final String headerName;
+        private final String headerValue;
+        private volatile boolean completed;
+
+        private StubTranscript(long createdAt, String webhookUrl, String headerName, String headerValue) {
+            this.createdAt = createdAt;
+            this.webhookUrl = webhookUrl;
+            this.headerName = headerName;
+            this.headerValue = headerValue;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.audioservice.controller;
+
+import com.example.audioservice.model.Response.AudioCacheStats;
+import com.example.audioservice.service.AudioCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController(value = "audioCache")
+@RequestMapping("/api/audio/cache")
+@RequiredArgsConstructor
+public class AudioCacheController {
+    private final AudioCacheService audioCacheService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<AudioCacheStats> getStats() {
+        return ResponseEntity.ok(audioCacheService.getStats());
+    }
+}
@@ -5,7 +5,6 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 @CrossOrigin(origins = {"http://localhost:5555", "http://10.0.2.2:5555"})
 @RestController(value = "categories")
 @RequestMapping( "/api/category")
@@ -18,7 +17,7 @@ public class CategoryController {
         return categoryService.addCategory(categoryDTO);
     }
     @GetMapping("/list")
-    public ResponseEntity<List<CategoryDTO>> getAllCategory() {
+    public ResponseEntity<byte[]> getAllCategory() {
         return categoryService.getAllCategories();
     }
 }
@@ -0,0 +1,72 @@
+package com.example.audioservice.controller;
+
+import com.example.audioservice.model.Request.PrefixCheckRequest;
+import com.example.audioservice.model.Response.PrefixCheckResult;
+import com.example.audioservice.service.ChallengeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Keystroke checks over one socket per lesson session, {@code /api/challenge/check/ws?lessonId=..}. The client sends
+ * a {@link PrefixCheckRequest} (orderIndex, typedWords, seq) per keystroke and gets a {@link PrefixCheckResult} back
+ * on the same connection, so the gateway and token handling are paid once at the handshake.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ChallengeCheckSocketHandler extends TextWebSocketHandler {
+    private static final String LESSON_ID = "lessonId";
+
+    private final ChallengeService challengeService;
+    private final ObjectMapper objectMapper;
+    @Value("${challenge.check-socket.max-message-bytes:8192}")
+    private int maxMessageBytes;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        String lessonId = session.getUri() == null ? null
+                : UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst(LESSON_ID);
+        try {
+            session.getAttributes().put(LESSON_ID, Long.valueOf(lessonId));
+        } catch (NumberFormatException e) {
+            session.close(CloseStatus.BAD_DATA.withReason("lessonId is required"));
+            return;
+        }
+        session.setTextMessageSizeLimit(maxMessageBytes);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        PrefixCheckResult result;
+        try {
+            PrefixCheckRequest request = objectMapper.readValue(message.getPayload(), PrefixCheckRequest.class);
+            request.setLessonId((Long) session.getAttributes().get(LESSON_ID));
+            try {
+                result = challengeService.checkPrefix(request);
+            } catch (ResponseStatusException e) {
+                result = PrefixCheckResult.builder().seq(request.getSeq()).error(e.getReason()).build();
+            }
+        } catch (JsonProcessingException e) {
+            result = PrefixCheckResult.builder().error("Malformed check message").build();
+        }
+        // the container delivers one message per session at a time, so replying inline needs no locking
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(result)));
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Check socket {} failed: {}", session.getId(), exception.getMessage());
+    }
+}
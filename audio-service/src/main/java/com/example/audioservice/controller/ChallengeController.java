@@ -1,12 +1,21 @@
 package com.example.audioservice.controller;
 
 import com.example.audioservice.model.Request.CheckRequest;
+import com.example.audioservice.model.Request.PrefixCheckRequest;
+import com.example.audioservice.model.Response.AnswerCheckResult;
+import com.example.audioservice.model.Response.AnswerKeyImportResponse;
 import com.example.audioservice.model.Response.AudioSegmentResponse;
 import com.example.audioservice.model.Response.ChallengeInfo;
 import com.example.audioservice.model.Response.ChallengeJobResponse;
+import com.example.audioservice.model.Response.ChallengeJobStatusResponse;
 import com.example.audioservice.model.Response.ChallengeResponse;
+import com.example.audioservice.model.Response.PrefixCheckResult;
+import com.example.audioservice.model.Response.SegmentationJobResponse;
+import com.example.audioservice.service.AnswerKeyService;
 import com.example.audioservice.service.AudioProcessingService;
 import com.example.audioservice.service.ChallengeService;
+import com.example.audioservice.service.JobStatusService;
+import com.example.audioservice.service.SegmentationJobService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
@@ -15,17 +24,25 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
 
 @RestController(value = "addChallengeOfAdmin")
 @RequestMapping("/api/challenge")
 @RequiredArgsConstructor
 public class ChallengeController {
     private final ChallengeService challengeService;
+    private final AnswerKeyService answerKeyService;
+    private final SegmentationJobService segmentationJobService;
+    private final JobStatusService jobStatusService;
     @Value("${jwt-secret}")
     private String secretKey;
 
@@ -34,10 +51,34 @@ public class ChallengeController {
                                                @RequestParam Long lessonId) {
         return challengeService.addChallenge(answerKey,lessonId);
     }
+    @PostMapping(value = "/import", consumes = {"application/zip", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<AnswerKeyImportResponse> importAnswerKeys(InputStream archive) {
+        try {
+            return new ResponseEntity<>(answerKeyService.importArchive(archive), HttpStatus.CREATED);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable answer key archive", e);
+        }
+    }
     @GetMapping("/process/{challengeJobId}")
     public ResponseEntity<List<ChallengeJobResponse>> getChallengeById(@PathVariable String challengeJobId, @RequestParam Long lessonId) {
         return challengeService.processChallenge(challengeJobId, lessonId);
     }
+    @GetMapping("/job/{challengeJobId}")
+    public ResponseEntity<ChallengeJobStatusResponse> getChallengeJobStatus(@PathVariable String challengeJobId) {
+        return ResponseEntity.ok(challengeService.getChallengeJobStatus(challengeJobId));
+    }
+    @GetMapping(value = "/job/{challengeJobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChallengeJobStatus(@PathVariable String challengeJobId) {
+        return jobStatusService.stream(JobStatusService.CHALLENGE, challengeJobId,
+                () -> challengeService.getChallengeJobStatus(challengeJobId), ChallengeJobStatusResponse::getStatus);
+    }
+    @GetMapping("/job/{challengeJobId}/wait")
+    public DeferredResult<ChallengeJobStatusResponse> waitChallengeJobStatus(@PathVariable String challengeJobId,
+                                                                            @RequestParam(required = false) String since,
+                                                                            @RequestParam(defaultValue = "25000") long timeoutMs) {
+        return jobStatusService.awaitChange(JobStatusService.CHALLENGE, challengeJobId, since, timeoutMs,
+                () -> challengeService.getChallengeJobStatus(challengeJobId), ChallengeJobStatusResponse::getStatus);
+    }
 
     @GetMapping("/list")
     public ResponseEntity<List<ChallengeResponse>> getAllChallenges(@RequestParam Long lessonId) {
@@ -66,7 +107,7 @@ public class ChallengeController {
         return challengeService.getPreviousChallenge(lessonId, orderIndex);
     }
     @PostMapping("/check")
-    public ResponseEntity<Map<String, Object>> checkAnswer(
+    public ResponseEntity<AnswerCheckResult> checkAnswer(
             HttpServletRequest request,
             @RequestBody CheckRequest checkRequest) {
         String header = request.getHeader("Authorization");
@@ -76,6 +117,10 @@ public class ChallengeController {
         String token = header.substring(7);
         return challengeService.checkUserAnswer(checkRequest, getUsernameFromToken(token));
     }
+    @PostMapping("/check/prefix")
+    public ResponseEntity<PrefixCheckResult> checkPrefix(@RequestBody PrefixCheckRequest prefixCheckRequest) {
+        return ResponseEntity.ok(challengeService.checkPrefix(prefixCheckRequest));
+    }
     @PostMapping("/segment-audio")
     public ResponseEntity<List<AudioSegmentResponse>> segmentAudioForChallenges(
             @RequestParam Long lessonId) {
@@ -85,6 +130,26 @@ public class ChallengeController {
             return ResponseEntity.internalServerError().build();
         }
     }
+    @PostMapping("/segment-audio/async")
+    public ResponseEntity<SegmentationJobResponse> submitSegmentation(@RequestParam Long lessonId) {
+        return ResponseEntity.ok(segmentationJobService.submitSegmentationJob(lessonId));
+    }
+    @GetMapping("/segment-audio/status/{jobId}")
+    public ResponseEntity<SegmentationJobResponse> getSegmentationStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(segmentationJobService.getJobStatus(jobId));
+    }
+    @GetMapping(value = "/segment-audio/status/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSegmentationStatus(@PathVariable String jobId) {
+        return jobStatusService.stream(JobStatusService.SEGMENTATION, jobId,
+                () -> segmentationJobService.getJobStatus(jobId), SegmentationJobResponse::getStatus);
+    }
+    @GetMapping("/segment-audio/status/{jobId}/wait")
+    public DeferredResult<SegmentationJobResponse> waitSegmentationStatus(@PathVariable String jobId,
+                                                                          @RequestParam(required = false) String since,
+                                                                          @RequestParam(defaultValue = "25000") long timeoutMs) {
+        return jobStatusService.awaitChange(JobStatusService.SEGMENTATION, jobId, since, timeoutMs,
+                () -> segmentationJobService.getJobStatus(jobId), SegmentationJobResponse::getStatus);
+    }
     @GetMapping("/lesson/{lessonId}/info")
     public ResponseEntity<List<ChallengeInfo>> getChallengesByLessonId(@PathVariable Long lessonId) {
         return challengeService.findChallengesByLessonId(lessonId);
@@ -17,7 +17,7 @@ import java.util.List;
 public class LessonController {
     private final LessonService lessonService;
     @GetMapping("/list")
-    public ResponseEntity<List<LessonResponse>> getAllLessons(@RequestParam Long sectionId) {
+    public ResponseEntity<byte[]> getAllLessons(@RequestParam Long sectionId) {
         return lessonService.getLessons(sectionId);
     }
     @PostMapping("/add")
@@ -25,7 +25,7 @@ public class LessonController {
         return lessonService.addLesson(lessonRequest);
     }
     @GetMapping("/all-challenge")
-    public ResponseEntity<List<LessonInfo>> getAllLessonsWithChallenge() {
+    public ResponseEntity<byte[]> getAllLessonsWithChallenge() {
         return lessonService.getAllLessonsWithChallenge();
     }
     @GetMapping("/{lessonId}/info")
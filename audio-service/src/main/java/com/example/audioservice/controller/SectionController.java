@@ -42,8 +42,8 @@ public class SectionController {
         return sectionService.getSectionsByFilterWithAuthenticated(filter, topicId, username);
     }
     @GetMapping("/list")
-    public ResponseEntity<List<SectionResponse>> getAllSections(@RequestParam Long topicId,
-                                                                HttpServletRequest request) {
+    public ResponseEntity<byte[]> getAllSections(@RequestParam Long topicId,
+                                                 HttpServletRequest request) {
         String header = request.getHeader("Authorization");
         if (header == null || header.trim().isEmpty() || !header.startsWith("Bearer ")) {
             return sectionService.getAllSections(topicId);
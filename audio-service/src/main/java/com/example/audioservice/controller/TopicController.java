@@ -9,7 +9,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 @CrossOrigin(origins = "http://localhost:8080")
 @RestController(value = "topic")
 @RequestMapping("/api/topics")
@@ -17,7 +16,7 @@ public class TopicController {
     @Autowired
     private TopicService topicService;
     @GetMapping(value = "/list")
-    private ResponseEntity<List<TopicResponse>> getAllTopics() {
+    private ResponseEntity<byte[]> getAllTopics() {
         return topicService.getAllTopics();
     }
     @PostMapping(value = "/add")
@@ -2,14 +2,19 @@ package com.example.audioservice.controller;
 
 import com.example.audioservice.entity.TranscriptJob;
 import com.example.audioservice.model.Request.TranscriptRequest;
+import com.example.audioservice.model.Request.TranscriptWebhookRequest;
 import com.example.audioservice.model.Response.TranscriptJobResponse;
 import com.example.audioservice.repository.TranscriptJobRepository;
+import com.example.audioservice.service.JobStatusService;
 import com.example.audioservice.service.TranscriptService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -18,6 +23,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TranscriptController {
     private final TranscriptService transcriptService;
+    private final JobStatusService jobStatusService;
     @PostMapping("/async")
     public ResponseEntity<TranscriptJobResponse> transcript(@RequestBody TranscriptRequest transcriptRequest) throws Exception {
         List<String> results =transcriptService.submitTranscriptJob(transcriptRequest);
@@ -28,6 +34,18 @@ public class TranscriptController {
         TranscriptJobResponse response = transcriptService.getJobStatus(jobId);
         return ResponseEntity.ok(response);
     }
+    @GetMapping(value = "/status/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTranscriptStatus(@PathVariable String jobId) {
+        return jobStatusService.stream(JobStatusService.TRANSCRIPT, jobId,
+                () -> transcriptService.getJobStatus(jobId), TranscriptJobResponse::getStatus);
+    }
+    @GetMapping("/status/{jobId}/wait")
+    public DeferredResult<TranscriptJobResponse> waitTranscriptStatus(@PathVariable String jobId,
+                                                                      @RequestParam(required = false) String since,
+                                                                      @RequestParam(defaultValue = "25000") long timeoutMs) {
+        return jobStatusService.awaitChange(JobStatusService.TRANSCRIPT, jobId, since, timeoutMs,
+                () -> transcriptService.getJobStatus(jobId), TranscriptJobResponse::getStatus);
+    }
     @GetMapping("/result/{jobId}")
     public ResponseEntity<String> getTranscriptResult(@PathVariable String jobId) {
         String result = transcriptService.getJobResult(jobId);
@@ -36,4 +54,11 @@ public class TranscriptController {
         }
         return ResponseEntity.ok(result);
     }
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> transcriptWebhook(
+            @RequestHeader(value = TranscriptService.WEBHOOK_AUTH_HEADER, required = false) String secret,
+            @RequestBody TranscriptWebhookRequest request) {
+        transcriptService.handleWebhook(secret, request);
+        return ResponseEntity.ok().build();
+    }
 }
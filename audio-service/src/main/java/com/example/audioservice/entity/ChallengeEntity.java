@@ -33,6 +33,9 @@ public class ChallengeEntity {
 
     @Column(name = "audio_segment")
     private String audioSegmentUrl;
+    // hash of (source audio, start, end, encoding profile) of the clip in audio_segment
+    @Column(name = "segment_fingerprint", length = 64)
+    private String segmentFingerprint;
     @ManyToOne
     @JoinColumn(name = "lesson_id")
     private LessonEntity lesson;
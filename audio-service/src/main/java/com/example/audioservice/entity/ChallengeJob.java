@@ -24,13 +24,23 @@ public class ChallengeJob {
     @Column(nullable = false)
     private String status;
 
+    // JSON AssemblyResponse, only for jobs written before response_data existed
     @Column(name = "response_payload",columnDefinition = "TEXT")
     private String responsePayload;
 
+    // word-level transcript in TranscriptCodec form
+    @Column(name = "response_data", columnDefinition = "BYTEA")
+    private byte[] responseData;
+
     @Column(name = "processed_at")
     private Instant processedAt;
 
     @Column(name = "error_message")
     private String errorMessage;
 
+    // bumped by every save and by the conditional UPDATEs in the repository
+    @Version
+    @Column(nullable = false)
+    private long version;
+
 }
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,10 +27,23 @@ public class LessonEntity {
     private String audioPath;
     @Column(name = "transcript",length = 5000)
     private String transcript;
+    // ffprobe result of audioPath, filled the first time the lesson is segmented
+    @Column(name = "audio_codec")
+    private String audioCodec;
+    @Column(name = "audio_sample_rate")
+    private Integer audioSampleRate;
+    @Column(name = "audio_bit_rate")
+    private Long audioBitRate;
+    // SHA-256 of the audio file content
+    @Column(name = "audio_hash", length = 64)
+    private String audioHash;
     @ManyToOne
     @JoinColumn(name = "section_id")
     private SectionEntity sectionEntity;
-    @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL,mappedBy = "lesson")
+    // lazy: lesson listings read ids and counts through LessonRepository projections instead
+    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL,mappedBy = "lesson")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     List<ChallengeEntity> challengeEntities = new ArrayList<>() ;
 
 }
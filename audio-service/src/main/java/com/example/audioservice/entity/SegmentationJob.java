@@ -0,0 +1,56 @@
+package com.example.audioservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "segmentationJobs")
+public class SegmentationJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", unique = true, nullable = false)
+    private String jobId;
+
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    @Column(nullable = false)
+    private String status; // PENDING, PROCESSING, COMPLETED, ERROR
+
+    @Column(name = "total_segments")
+    private Integer totalSegments;
+
+    @Column(name = "completed_segments")
+    private Integer completedSegments;
+
+    @Column(name = "failed_segments")
+    private Integer failedSegments;
+
+    @Column(columnDefinition = "TEXT")
+    private String result;
+
+    @Column
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // bumped by every save and by the conditional UPDATEs in the repository
+    @Version
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,43 @@
+package com.example.audioservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "transcriptCache",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"audio_hash", "options_hash"}))
+public class TranscriptCacheEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // sha256 of the audio content
+    @Column(name = "audio_hash", nullable = false, length = 64)
+    private String audioHash;
+
+    // sha256 of the provider endpoint and transcription options
+    @Column(name = "options_hash", nullable = false, length = 64)
+    private String optionsHash;
+
+    // TranscriptCodec form
+    @Column(name = "transcript_data", nullable = false, columnDefinition = "BYTEA")
+    private byte[] transcriptData;
+
+    @Column(columnDefinition = "TEXT")
+    private String text;
+
+    @Column(name = "provider_transcript_id")
+    private String providerTranscriptId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
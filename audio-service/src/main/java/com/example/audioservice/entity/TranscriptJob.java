@@ -33,12 +33,28 @@ public class TranscriptJob {
     @Column
     private String error;
 
+    // id the ASR provider assigned to the transcript; webhooks and the reconciler look jobs up by it
+    @Column
+    private String providerTranscriptId;
+
+    @Column
+    private String challengeJobId;
+
+    // sha256 of the audio content, key of the transcript cache
+    @Column(length = 64)
+    private String audioHash;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
     @Column
     private LocalDateTime updatedAt;
 
+    // bumped by every save and by the conditional UPDATEs in the repository
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public TranscriptJob() {
     }
 }
\ No newline at end of file
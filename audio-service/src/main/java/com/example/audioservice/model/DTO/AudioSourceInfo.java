@@ -0,0 +1,22 @@
+package com.example.audioservice.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AudioSourceInfo {
+    private String codec;
+    private Integer sampleRate;
+    private Long bitRate;
+
+    public boolean matches(String targetCodec, int targetSampleRate, long targetBitRate) {
+        return targetCodec.equalsIgnoreCase(codec)
+                && sampleRate != null && sampleRate == targetSampleRate
+                && bitRate != null && bitRate == targetBitRate;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.audioservice.model.DTO;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * A pinned entry of the local audio cache. The file is not evicted until the handle is closed.
+ */
+@Getter
+public class CachedAudio implements AutoCloseable {
+    private final Path path;
+    private final String contentHash;
+    private final long size;
+    private final Runnable release;
+    private boolean closed;
+
+    public CachedAudio(Path path, String contentHash, long size, Runnable release) {
+        this.path = path;
+        this.contentHash = contentHash;
+        this.size = size;
+        this.release = release;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.audioservice.model.DTO;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A response body serialized once, with the ETag of its bytes. Returning it from a GET handler lets Spring answer a
+ * matching If-None-Match with 304 and no body.
+ */
+public record CachedJson(long version, byte[] body, String eTag) {
+    public static final String VERSION_HEADER = "X-Catalog-Version";
+
+    public ResponseEntity<byte[]> toResponse() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(eTag)
+                .header(VERSION_HEADER, String.valueOf(version))
+                .body(body);
+    }
+}
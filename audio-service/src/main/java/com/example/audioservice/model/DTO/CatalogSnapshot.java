@@ -0,0 +1,28 @@
+package com.example.audioservice.model.DTO;
+
+import java.util.Map;
+
+/**
+ * Immutable read model of category → topic → section → lesson → challenge ids, held as the serialized listings the
+ * API serves. Child listings are keyed by the id of their parent: every topic has a section listing, possibly empty,
+ * while a section without lessons has no lesson listing.
+ *
+ * @param version        increases with every rebuild on this instance
+ * @param changeCount    number of catalog changes seen when the rebuild started
+ * @param premiumByTopic whether the topic is premium, for every topic
+ * @param lessonInfos    every lesson with its challenge ids, or null when there are no lessons
+ */
+public record CatalogSnapshot(long version,
+                              long changeCount,
+                              CachedJson categories,
+                              CachedJson topics,
+                              Map<Long, Boolean> premiumByTopic,
+                              Map<Long, CachedJson> sectionsByTopic,
+                              Map<Long, CachedJson> lessonsBySection,
+                              CachedJson lessonInfos) {
+    public CatalogSnapshot {
+        premiumByTopic = Map.copyOf(premiumByTopic);
+        sectionsByTopic = Map.copyOf(sectionsByTopic);
+        lessonsBySection = Map.copyOf(lessonsBySection);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.audioservice.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobStatusEvent {
+    private String jobType;
+    private String jobId;
+    private String status;
+    private String error;
+}
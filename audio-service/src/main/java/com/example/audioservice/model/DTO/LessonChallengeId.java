@@ -0,0 +1,14 @@
+package com.example.audioservice.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// one row per (lesson, challenge); challengeId is null for a lesson without challenges
+@Data
+@AllArgsConstructor
+public class LessonChallengeId {
+    private Long sectionId;
+    private Long lessonId;
+    private String title;
+    private Long challengeId;
+}
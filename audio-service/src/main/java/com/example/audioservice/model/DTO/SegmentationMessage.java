@@ -0,0 +1,13 @@
+package com.example.audioservice.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SegmentationMessage {
+    private String jobId;
+    private Long lessonId;
+}
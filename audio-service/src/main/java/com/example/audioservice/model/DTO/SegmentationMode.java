@@ -0,0 +1,8 @@
+package com.example.audioservice.model.DTO;
+
+public enum SegmentationMode {
+    // one ffmpeg run per clip, each one opening and decoding the lesson audio again
+    PER_SEGMENT,
+    // one ffmpeg run writes many clips while decoding the lesson audio once
+    SINGLE_PASS
+}
@@ -13,4 +13,6 @@ public class SentenceWithTiming {
     private Double startTime;
     private Double endTime;
     private List<AssemblyWordInfoResponse> words;
+    // 1 for an exact match, lower when the sentence was aligned around misheard words
+    private double confidence;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.audioservice.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranscriptResult {
+    private String id;
+    private String status;
+    private String text;
+    private String error;
+    // null until the transcript is completed
+    private TranscriptWords words;
+}
@@ -0,0 +1,62 @@
+package com.example.audioservice.model.DTO;
+
+import java.util.Arrays;
+
+/**
+ * Word timings of a transcript stored column by column, so an hour of audio costs a few arrays
+ * instead of tens of thousands of word objects. Times are in milliseconds.
+ */
+public final class TranscriptWords {
+    private String[] text;
+    private int[] start;
+    private int[] end;
+    private float[] confidence;
+    private int size;
+
+    public TranscriptWords() {
+        this(256);
+    }
+
+    public TranscriptWords(int capacity) {
+        int initial = Math.max(capacity, 16);
+        text = new String[initial];
+        start = new int[initial];
+        end = new int[initial];
+        confidence = new float[initial];
+    }
+
+    public void add(String word, int startMs, int endMs, float wordConfidence) {
+        if (size == text.length) {
+            int grown = size + (size >> 1);
+            text = Arrays.copyOf(text, grown);
+            start = Arrays.copyOf(start, grown);
+            end = Arrays.copyOf(end, grown);
+            confidence = Arrays.copyOf(confidence, grown);
+        }
+        text[size] = word;
+        start[size] = startMs;
+        end[size] = endMs;
+        confidence[size] = wordConfidence;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String text(int index) {
+        return text[index];
+    }
+
+    public int start(int index) {
+        return start[index];
+    }
+
+    public int end(int index) {
+        return end[index];
+    }
+
+    public float confidence(int index) {
+        return confidence[index];
+    }
+}
@@ -9,4 +9,6 @@ public class CheckRequest {
     private Long lessonId;
     private Integer orderIndex;
     private List<String> userAnswers;
+    // acceptable answers per word in the result, e.g. for hints
+    private boolean includeAnswers;
 }
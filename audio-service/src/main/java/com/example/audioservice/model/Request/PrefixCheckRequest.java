@@ -0,0 +1,16 @@
+package com.example.audioservice.model.Request;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PrefixCheckRequest {
+    // taken from the connection URL on the check socket
+    private Long lessonId;
+    private Integer orderIndex;
+    // words typed so far; the last one may still be incomplete
+    private List<String> typedWords;
+    // echoed back so the client can drop replies to older keystrokes
+    private Long seq;
+}
@@ -0,0 +1,17 @@
+package com.example.audioservice.model.Request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TranscriptWebhookRequest {
+    @JsonProperty("transcript_id")
+    private String transcriptId;
+    private String status;
+}
@@ -0,0 +1,28 @@
+package com.example.audioservice.model.Response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AnswerCheckResult {
+    private Long challengeId;
+    private Long lessonId;
+    private String fullSentence;
+    private boolean allCorrect;
+    // 1 passed, -1 failed; read by user-service from the check-user-answer topic
+    private int isPass;
+    private int totalWords;
+    private int correctWords;
+    private List<WordResult> wordResults;
+    // only set on the message for signed-in users
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String username;
+}
@@ -0,0 +1,19 @@
+package com.example.audioservice.model.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AnswerKeyImportResponse {
+    private List<Long> importedLessonIds;
+    private int challengesImported;
+    // entries that are not "<lessonId>.txt" or name a lesson that does not exist
+    private List<String> skippedEntries;
+}
@@ -0,0 +1,22 @@
+package com.example.audioservice.model.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AudioCacheStats {
+    private int entries;
+    private int pinnedEntries;
+    private long sizeBytes;
+    private long maxSizeBytes;
+    private long hits;
+    private long misses;
+    private long coalescedWaits;
+    private long evictions;
+    private long bytesDownloaded;
+}
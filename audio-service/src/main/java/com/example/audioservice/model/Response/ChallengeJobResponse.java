@@ -7,4 +7,5 @@ public class ChallengeJobResponse {
     private String fullSentence;
     private Double startTime;
     private Double endTime;
+    private Double confidence;
 }
@@ -0,0 +1,16 @@
+package com.example.audioservice.model.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChallengeJobStatusResponse {
+    private String jobId;
+    private String status;
+    private String error;
+}
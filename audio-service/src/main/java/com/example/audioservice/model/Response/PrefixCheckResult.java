@@ -0,0 +1,32 @@
+package com.example.audioservice.model.Response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PrefixCheckResult {
+    private Long seq;
+    private Long challengeId;
+    private Integer totalWords;
+    // one state per typed word
+    private List<WordState> states;
+    // every word typed and correct
+    private Boolean complete;
+    private String error;
+
+    public enum WordState {
+        CORRECT,
+        // the word being typed is the start of an acceptable answer
+        PARTIAL,
+        WRONG
+    }
+}
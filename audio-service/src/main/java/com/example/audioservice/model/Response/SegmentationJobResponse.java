@@ -0,0 +1,23 @@
+package com.example.audioservice.model.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SegmentationJobResponse {
+    private String jobId;
+    private Long lessonId;
+    private String status;
+    private Integer totalSegments;
+    private Integer completedSegments;
+    private Integer failedSegments;
+    private String error;
+    private List<AudioSegmentResponse> segments;
+}
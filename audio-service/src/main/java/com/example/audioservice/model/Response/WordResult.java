@@ -0,0 +1,33 @@
+package com.example.audioservice.model.Response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WordResult {
+    private int index;
+    private String userAnswer;
+    private boolean correct;
+    // shared with the compiled answer key, not copied; left out unless the client asked for the answers
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> acceptableAnswers;
+    // why a wrong word is wrong; null when correct
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Mistake mistake;
+
+    public enum Mistake {
+        // no answer at this position
+        MISSING,
+        // within edit distance 1 (words up to 4 letters) or 2 of an acceptable answer
+        TYPO,
+        // same stem, different ending: walk/walked, city/cities
+        WRONG_FORM,
+        WRONG
+    }
+}
@@ -2,9 +2,42 @@ package com.example.audioservice.repository;
 
 import com.example.audioservice.entity.ChallengeJob;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Optional;
 
 public interface ChallengeJobRepository extends JpaRepository<ChallengeJob,Long> {
     Optional<ChallengeJob>  findByJobId(String jobId);
+
+    // conditional transition in one round trip; 0 means the job is missing or no longer in one of fromStatuses
+    @Modifying
+    @Transactional
+    @Query("UPDATE ChallengeJob j SET j.status = :status, j.errorMessage = :error, j.version = j.version + 1 " +
+            "WHERE j.jobId = :jobId AND j.status IN :fromStatuses")
+    int transition(@Param("jobId") String jobId,
+                   @Param("fromStatuses") Collection<String> fromStatuses,
+                   @Param("status") String status,
+                   @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ChallengeJob j SET j.status = :status, j.errorMessage = :error, j.version = j.version + 1 " +
+            "WHERE j.jobId = :jobId")
+    int updateStatus(@Param("jobId") String jobId,
+                     @Param("status") String status,
+                     @Param("error") String error);
+
+    // only fills a pending job that has no transcript yet
+    @Modifying
+    @Transactional
+    @Query("UPDATE ChallengeJob j SET j.responseData = :data, j.responsePayload = :payload, " +
+            "j.version = j.version + 1 WHERE j.jobId = :jobId AND j.status = 'PENDING' " +
+            "AND j.responseData IS NULL AND j.responsePayload IS NULL")
+    int attachTranscript(@Param("jobId") String jobId,
+                         @Param("data") byte[] data,
+                         @Param("payload") String payload);
 }
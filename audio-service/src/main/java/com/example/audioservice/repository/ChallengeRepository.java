@@ -6,9 +6,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 import java.util.Optional;
 
-public interface ChallengeRepository extends JpaRepository<ChallengeEntity, Long> {
+public interface ChallengeRepository extends JpaRepository<ChallengeEntity, Long>, ChallengeRepositoryCustom {
     List<ChallengeEntity> findByLesson_Id(Long lessonId);
 
+    long countByLesson_Id(Long lessonId);
+
     List<ChallengeEntity> findAllByLesson_Id(Long lessonId);
 
     List<ChallengeEntity> findByLesson_IdOrderByOrderIndex(Long lessonId);
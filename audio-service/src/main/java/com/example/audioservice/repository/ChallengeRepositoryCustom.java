@@ -0,0 +1,23 @@
+package com.example.audioservice.repository;
+
+import com.example.audioservice.entity.ChallengeEntity;
+
+import java.util.List;
+
+public interface ChallengeRepositoryCustom {
+    /**
+     * Inserts new challenges in JDBC batches, bypassing the one-by-one IDENTITY inserts of saveAll; ids are not read
+     * back.
+     */
+    void batchInsert(List<ChallengeEntity> challenges);
+
+    /**
+     * Writes start and end time of every challenge in one JDBC batch.
+     */
+    void batchUpdateTimings(List<ChallengeEntity> challenges);
+
+    /**
+     * Writes segment URL and segment fingerprint of every challenge in one JDBC batch.
+     */
+    void batchUpdateSegments(List<ChallengeEntity> challenges);
+}
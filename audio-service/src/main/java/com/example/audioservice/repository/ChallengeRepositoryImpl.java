@@ -0,0 +1,63 @@
+package com.example.audioservice.repository;
+
+import com.example.audioservice.entity.ChallengeEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ChallengeRepositoryImpl implements ChallengeRepositoryCustom {
+    private static final int BATCH_SIZE = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void batchInsert(List<ChallengeEntity> challenges) {
+        if (challenges.isEmpty()) {
+            return;
+        }
+        // Postgres only: word_data is a json column and rejects a varchar parameter without the cast. H2 would turn
+        // the cast into a JSON string value, so the H2 @DataJpaTest tests do not cover this statement.
+        jdbcTemplate.batchUpdate("INSERT INTO challenge (full_sentence, word_data, strat_time, end_time, order_index, lesson_id)"
+                        + " VALUES (?, CAST(? AS json), ?, ?, ?, ?)",
+                challenges, BATCH_SIZE, (ps, challenge) -> {
+                    ps.setString(1, challenge.getFullSentence());
+                    ps.setString(2, challenge.getWordData());
+                    ps.setObject(3, challenge.getStartTime());
+                    ps.setObject(4, challenge.getEndTime());
+                    ps.setObject(5, challenge.getOrderIndex());
+                    ps.setLong(6, challenge.getLesson().getId());
+                });
+    }
+
+    @Override
+    @Transactional
+    public void batchUpdateTimings(List<ChallengeEntity> challenges) {
+        if (challenges.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE challenge SET strat_time = ?, end_time = ? WHERE id = ?",
+                challenges, BATCH_SIZE, (ps, challenge) -> {
+                    ps.setObject(1, challenge.getStartTime());
+                    ps.setObject(2, challenge.getEndTime());
+                    ps.setLong(3, challenge.getId());
+                });
+    }
+
+    @Override
+    @Transactional
+    public void batchUpdateSegments(List<ChallengeEntity> challenges) {
+        if (challenges.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE challenge SET audio_segment = ?, segment_fingerprint = ? WHERE id = ?",
+                challenges, BATCH_SIZE, (ps, challenge) -> {
+                    ps.setString(1, challenge.getAudioSegmentUrl());
+                    ps.setString(2, challenge.getSegmentFingerprint());
+                    ps.setLong(3, challenge.getId());
+                });
+    }
+}
@@ -1,10 +1,50 @@
 package com.example.audioservice.repository;
 
 import com.example.audioservice.entity.LessonEntity;
+import com.example.audioservice.model.DTO.LessonChallengeId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 public interface LessonRepository extends JpaRepository<LessonEntity,Long> {
     List<LessonEntity> findAllBySectionEntity_Id(Long sectionEntityId);
+
+    @Query("SELECT new com.example.audioservice.model.DTO.LessonChallengeId(l.sectionEntity.id, l.id, l.title, c.id) " +
+            "FROM LessonEntity l LEFT JOIN l.challengeEntities c ORDER BY l.id, c.id")
+    List<LessonChallengeId> findAllChallengeIds();
+
+    @Query("SELECT new com.example.audioservice.model.DTO.LessonChallengeId(l.sectionEntity.id, l.id, l.title, c.id) " +
+            "FROM LessonEntity l LEFT JOIN l.challengeEntities c WHERE l.id = :lessonId ORDER BY c.id")
+    List<LessonChallengeId> findChallengeIdsByLessonId(@Param("lessonId") Long lessonId);
+
+    @Query("SELECT new com.example.audioservice.model.DTO.LessonChallengeId(l.sectionEntity.id, l.id, l.title, c.id) " +
+            "FROM LessonEntity l LEFT JOIN l.challengeEntities c WHERE l.sectionEntity.id = :sectionId " +
+            "ORDER BY l.id, c.id")
+    List<LessonChallengeId> findChallengeIdsBySectionId(@Param("sectionId") Long sectionId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE LessonEntity l SET l.audioCodec = :codec, l.audioSampleRate = :sampleRate, " +
+            "l.audioBitRate = :bitRate WHERE l.id = :id")
+    int updateAudioInfo(@Param("id") Long id,
+                        @Param("codec") String codec,
+                        @Param("sampleRate") Integer sampleRate,
+                        @Param("bitRate") Long bitRate);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE LessonEntity l SET l.audioHash = :audioHash WHERE l.id = :id")
+    int updateAudioHash(@Param("id") Long id, @Param("audioHash") String audioHash);
+
+    @Query("SELECT l.audioHash FROM LessonEntity l WHERE l.audioPath = :audioPath AND l.audioHash IS NOT NULL")
+    List<String> findAudioHashesByAudioPath(@Param("audioPath") String audioPath);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE LessonEntity l SET l.audioHash = :audioHash WHERE l.audioPath = :audioPath")
+    int updateAudioHashByAudioPath(@Param("audioPath") String audioPath, @Param("audioHash") String audioHash);
 }
@@ -0,0 +1,63 @@
+package com.example.audioservice.repository;
+
+import com.example.audioservice.entity.SegmentationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SegmentationJobRepository extends JpaRepository<SegmentationJob, Long> {
+    Optional<SegmentationJob> findByJobId(String jobId);
+
+    Optional<SegmentationJob> findFirstByLessonIdAndStatusInOrderByCreatedAtDesc(Long lessonId,
+                                                                                 Collection<String> statuses);
+
+    List<SegmentationJob> findByStatusAndUpdatedAtBefore(String status, LocalDateTime updatedBefore);
+
+    // only one consumer can move a job out of PENDING, so redelivered messages are ignored.
+    // a PROCESSING job that has not moved since staleBefore lost its worker and can be claimed again.
+    @Modifying
+    @Transactional
+    @Query("UPDATE SegmentationJob j SET j.status = 'PROCESSING', j.totalSegments = :total, " +
+            "j.completedSegments = 0, j.failedSegments = 0, j.updatedAt = :now, j.version = j.version + 1 " +
+            "WHERE j.jobId = :jobId " +
+            "AND (j.status = 'PENDING' OR (j.status = 'PROCESSING' AND j.updatedAt < :staleBefore))")
+    int claim(@Param("jobId") String jobId,
+              @Param("total") Integer total,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SegmentationJob j SET j.status = 'PENDING', j.updatedAt = :now, j.version = j.version + 1 " +
+            "WHERE j.jobId = :jobId AND j.status = 'PROCESSING' AND j.updatedAt < :staleBefore")
+    int requeue(@Param("jobId") String jobId,
+                @Param("now") LocalDateTime now,
+                @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SegmentationJob j SET j.completedSegments = :completed, j.failedSegments = :failed, " +
+            "j.updatedAt = :now, j.version = j.version + 1 WHERE j.jobId = :jobId")
+    int updateProgress(@Param("jobId") String jobId,
+                       @Param("completed") Integer completed,
+                       @Param("failed") Integer failed,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SegmentationJob j SET j.status = :status, j.result = :result, j.error = :error, " +
+            "j.updatedAt = :now, j.version = j.version + 1 " +
+            "WHERE j.jobId = :jobId AND j.status IN ('PENDING', 'PROCESSING')")
+    int finish(@Param("jobId") String jobId,
+               @Param("status") String status,
+               @Param("result") String result,
+               @Param("error") String error,
+               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,10 @@
+package com.example.audioservice.repository;
+
+import com.example.audioservice.entity.TranscriptCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface TranscriptCacheRepository extends JpaRepository<TranscriptCacheEntry, Long> {
+    Optional<TranscriptCacheEntry> findByAudioHashAndOptionsHash(String audioHash, String optionsHash);
+}
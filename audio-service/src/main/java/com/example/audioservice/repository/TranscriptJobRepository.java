@@ -2,9 +2,85 @@ package com.example.audioservice.repository;
 
 import com.example.audioservice.entity.TranscriptJob;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Every state change is one conditional UPDATE that also bumps the version; a return value of 0 means
+ * another worker moved the job first.
+ */
 public interface TranscriptJobRepository extends JpaRepository<TranscriptJob, Long> {
     Optional<TranscriptJob> findByJobId(String jobId);
+
+    Optional<TranscriptJob> findByProviderTranscriptId(String providerTranscriptId);
+
+    List<TranscriptJob> findByStatusInAndUpdatedAtBefore(Collection<String> statuses, LocalDateTime updatedBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptJob j SET j.status = 'PROCESSING', j.challengeJobId = :challengeJobId, " +
+            "j.updatedAt = :now, j.version = j.version + 1 WHERE j.jobId = :jobId AND j.status = 'PENDING'")
+    int claim(@Param("jobId") String jobId,
+              @Param("challengeJobId") String challengeJobId,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptJob j SET j.status = :status, j.result = :result, j.error = :error, " +
+            "j.updatedAt = :now, j.version = j.version + 1 WHERE j.jobId = :jobId AND j.status IN :fromStatuses")
+    int transition(@Param("jobId") String jobId,
+                   @Param("fromStatuses") Collection<String> fromStatuses,
+                   @Param("status") String status,
+                   @Param("result") String result,
+                   @Param("error") String error,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptJob j SET j.audioHash = :audioHash, j.version = j.version + 1 " +
+            "WHERE j.jobId = :jobId AND j.status = 'PROCESSING'")
+    int updateAudioHash(@Param("jobId") String jobId, @Param("audioHash") String audioHash);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptJob j SET j.providerTranscriptId = :providerTranscriptId, j.updatedAt = :now, " +
+            "j.version = j.version + 1 WHERE j.jobId = :jobId AND j.status = 'PROCESSING' " +
+            "AND j.providerTranscriptId IS NULL")
+    int markSubmitted(@Param("jobId") String jobId,
+                      @Param("providerTranscriptId") String providerTranscriptId,
+                      @Param("now") LocalDateTime now);
+
+    // re-drive of a job claimed but never submitted: only one reconciler wins, and only once it has been quiet long enough
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptJob j SET j.updatedAt = :now, j.version = j.version + 1 " +
+            "WHERE j.jobId = :jobId AND j.status = 'PROCESSING' AND j.providerTranscriptId IS NULL " +
+            "AND j.updatedAt < :staleBefore")
+    int reclaimSubmit(@Param("jobId") String jobId,
+                      @Param("now") LocalDateTime now,
+                      @Param("staleBefore") LocalDateTime staleBefore);
+
+    // webhook and reconciler may race for the same job; only the caller that gets 1 back finalizes it.
+    // a FINALIZING job that has not moved since staleBefore belonged to a caller that died midway.
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptJob j SET j.status = 'FINALIZING', j.updatedAt = :now, j.version = j.version + 1 " +
+            "WHERE j.jobId = :jobId " +
+            "AND (j.status = 'PROCESSING' OR (j.status = 'FINALIZING' AND j.updatedAt < :staleBefore))")
+    int claimFinalization(@Param("jobId") String jobId,
+                          @Param("now") LocalDateTime now,
+                          @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptJob j SET j.status = 'PROCESSING', j.updatedAt = :now, j.version = j.version + 1 " +
+            "WHERE j.jobId = :jobId AND j.status = 'FINALIZING'")
+    int releaseFinalization(@Param("jobId") String jobId, @Param("now") LocalDateTime now);
 }
@@ -1,5 +1,21 @@
 package com.example.audioservice.service;
 
+import com.example.audioservice.model.Response.AnswerKeyImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
 public interface AnswerKeyService {
+    /**
+     * Adds the "N. sentence" lines of an answer key as challenges of the lesson; other lines are skipped. Returns the
+     * number of challenges added; 404 when the lesson does not exist.
+     */
+    int importLesson(Long lessonId, Reader answerKey) throws IOException;
 
+    /**
+     * Streams a zip of answer keys with one {@code <lessonId>.txt} entry per lesson, importing each entry as it is
+     * read. Entries of unknown lessons or with other names are reported, not imported.
+     */
+    AnswerKeyImportResponse importArchive(InputStream archive) throws IOException;
 }
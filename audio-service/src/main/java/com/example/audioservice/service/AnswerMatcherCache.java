@@ -0,0 +1,15 @@
+package com.example.audioservice.service;
+
+import com.example.audioservice.utils.AnswerMatcher;
+
+public interface AnswerMatcherCache {
+    /**
+     * Compiled answer key of the challenge, loaded on first use; 404 when the lesson has no such challenge.
+     */
+    AnswerMatcher get(Long lessonId, Integer orderIndex);
+
+    /**
+     * Drops the cached challenges of a lesson on every instance; call after its challenges changed.
+     */
+    void invalidateLesson(Long lessonId);
+}
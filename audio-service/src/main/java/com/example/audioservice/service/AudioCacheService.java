@@ -0,0 +1,15 @@
+package com.example.audioservice.service;
+
+import com.example.audioservice.model.DTO.CachedAudio;
+import com.example.audioservice.model.Response.AudioCacheStats;
+
+public interface AudioCacheService {
+    /**
+     * Returns the local copy of {@code audioUrl}, downloading it at most once per URL and ETag. The origin is asked
+     * whether the file changed only once the cached copy is older than {@code audio.cache.revalidate-after-seconds}.
+     * The caller must close the handle when done reading the file.
+     */
+    CachedAudio acquire(String audioUrl) throws Exception;
+
+    AudioCacheStats getStats();
+}
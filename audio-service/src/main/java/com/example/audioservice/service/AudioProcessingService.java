@@ -1,14 +1,32 @@
 package com.example.audioservice.service;
 
 import com.example.audioservice.model.DTO.AudioSegment;
+import com.example.audioservice.model.DTO.AudioSourceInfo;
+import com.example.audioservice.model.DTO.SegmentationMode;
 import com.example.audioservice.model.Response.AudioSegmentResponse;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AudioProcessingService {
     List<AudioSegmentResponse> segmentAudio(String audioUrl, List<AudioSegment> segments) throws Exception;
 
-    String downloadAudioFromFirebase(String firebaseUrl) throws Exception;
+    List<AudioSegmentResponse> segmentAudio(String audioUrl, AudioSourceInfo source, List<AudioSegment> segments) throws Exception;
+
+    /**
+     * When {@code source} already matches the clip encoding, clips are cut with codec copy instead of re-encoding.
+     * A null {@code mode} uses the configured default; {@code onSegmentDone} (nullable) is called from worker threads as each clip finishes.
+     */
+    List<AudioSegmentResponse> segmentAudio(String audioUrl, AudioSourceInfo source, List<AudioSegment> segments,
+                                            SegmentationMode mode,
+                                            Consumer<AudioSegmentResponse> onSegmentDone) throws Exception;
+
+    AudioSourceInfo probeAudio(String audioUrl) throws Exception;
+
+    /**
+     * Identifies the codec settings clips are written with; changes whenever the output encoding changes.
+     */
+    String getEncodingProfile();
 
     String uploadSegmentToFirebase(String segmentFilePath, String fileName) throws Exception;
 }
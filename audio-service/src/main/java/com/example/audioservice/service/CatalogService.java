@@ -0,0 +1,16 @@
+package com.example.audioservice.service;
+
+import com.example.audioservice.model.DTO.CatalogSnapshot;
+
+public interface CatalogService {
+    /**
+     * Current catalog, rebuilt first when a change has been seen since it was built.
+     */
+    CatalogSnapshot current();
+
+    /**
+     * Marks the catalog stale here and on every other instance; call after a category, topic, section, lesson or
+     * challenge was written. Inside a transaction this happens after the commit, and not at all on rollback.
+     */
+    void invalidate();
+}
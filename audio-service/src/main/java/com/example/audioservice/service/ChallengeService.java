@@ -1,24 +1,40 @@
 package com.example.audioservice.service;
 
 import com.example.audioservice.model.Request.CheckRequest;
+import com.example.audioservice.model.Request.PrefixCheckRequest;
+import com.example.audioservice.model.Response.AnswerCheckResult;
 import com.example.audioservice.model.Response.AudioSegmentResponse;
 import com.example.audioservice.model.Response.ChallengeInfo;
 import com.example.audioservice.model.Response.ChallengeJobResponse;
+import com.example.audioservice.model.Response.ChallengeJobStatusResponse;
 import com.example.audioservice.model.Response.ChallengeResponse;
+import com.example.audioservice.model.Response.PrefixCheckResult;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ChallengeService {
     ResponseEntity<String> addChallenge(String answerKey, Long lessonId);
     ResponseEntity<List<ChallengeResponse>> findAllChallengesByLessonId(Long lessonId);
     ResponseEntity<List<ChallengeInfo>> findChallengesByLessonId(Long lessonId);
-    ResponseEntity<Map<String, Object>> checkAnswer(CheckRequest checkRequest);
+    ResponseEntity<AnswerCheckResult> checkAnswer(CheckRequest checkRequest);
+
+    /**
+     * Per-word state of a partly typed answer; nothing is recorded, unlike {@link #checkUserAnswer}.
+     */
+    PrefixCheckResult checkPrefix(PrefixCheckRequest prefixCheckRequest);
     ResponseEntity<List<AudioSegmentResponse>> segmentAudioForChallenges(Long lessonId) throws Exception;
+
+    /**
+     * Cuts and uploads the clips of a lesson; {@code onSegmentDone} (nullable) sees each clip as it finishes.
+     */
+    List<AudioSegmentResponse> segmentLessonAudio(Long lessonId,
+                                                  Consumer<AudioSegmentResponse> onSegmentDone) throws Exception;
     ResponseEntity<List<ChallengeJobResponse>> processChallenge(String challengeJobId, Long lessonId);
+    ChallengeJobStatusResponse getChallengeJobStatus(String challengeJobId);
 
-    ResponseEntity<Map<String, Object>> checkUserAnswer(CheckRequest checkRequest, String usernameFromToken);
+    ResponseEntity<AnswerCheckResult> checkUserAnswer(CheckRequest checkRequest, String usernameFromToken);
     ResponseEntity<ChallengeResponse> getFirstChallenge(Long lessonId);
     ResponseEntity<ChallengeResponse> continueChallenges(Long lessonId, String username);
 
@@ -0,0 +1,150 @@
+package com.example.audioservice.service.Impl;
+
+import com.example.audioservice.entity.ChallengeEntity;
+import com.example.audioservice.entity.LessonEntity;
+import com.example.audioservice.model.DTO.WordData;
+import com.example.audioservice.model.DTO.WordInfo;
+import com.example.audioservice.model.Response.AnswerKeyImportResponse;
+import com.example.audioservice.repository.ChallengeRepository;
+import com.example.audioservice.repository.LessonRepository;
+import com.example.audioservice.service.AnswerKeyService;
+import com.example.audioservice.service.AnswerMatcherCache;
+import com.example.audioservice.service.CatalogService;
+import com.example.audioservice.utils.TextSegmentationUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Answer-key import: lines are parsed as they are read, sentences are segmented in parallel and the challenges of a
+ * lesson go to the database in one JDBC batch.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AnswerKeyServiceImpl implements AnswerKeyService {
+    private static final Pattern LINE_PATTERN = Pattern.compile("^(\\d+)\\.\\s*(.*)$");
+    private static final Pattern ENTRY_NAME = Pattern.compile("(?:.*/)?(\\d+)\\.txt");
+
+    private final ChallengeRepository challengeRepository;
+    private final LessonRepository lessonRepository;
+    private final ObjectMapper objectMapper;
+    private final AnswerMatcherCache answerMatcherCache;
+    private final CatalogService catalogService;
+
+    @Override
+    public int importLesson(Long lessonId, Reader answerKey) throws IOException {
+        if (!lessonRepository.existsById(lessonId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson Not Found");
+        }
+        return insert(lessonId, parse(new BufferedReader(answerKey)));
+    }
+
+    @Override
+    public AnswerKeyImportResponse importArchive(InputStream archive) throws IOException {
+        List<Long> importedLessonIds = new ArrayList<>();
+        List<String> skippedEntries = new ArrayList<>();
+        int challengesImported = 0;
+        ZipInputStream zip = new ZipInputStream(archive, StandardCharsets.UTF_8);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+            Matcher name = ENTRY_NAME.matcher(entry.getName());
+            Long lessonId = name.matches() ? parseLessonId(name.group(1)) : null;
+            if (lessonId == null || !lessonRepository.existsById(lessonId)) {
+                skippedEntries.add(entry.getName());
+                continue;
+            }
+            // reads up to the end of this entry; closing it would close the archive
+            List<ParsedLine> lines = parse(new BufferedReader(new InputStreamReader(zip, StandardCharsets.UTF_8)));
+            challengesImported += insert(lessonId, lines);
+            importedLessonIds.add(lessonId);
+        }
+        log.info("Imported {} challenges into {} lessons, skipped {} entries",
+                challengesImported, importedLessonIds.size(), skippedEntries.size());
+        return AnswerKeyImportResponse.builder()
+                .importedLessonIds(importedLessonIds)
+                .challengesImported(challengesImported)
+                .skippedEntries(skippedEntries)
+                .build();
+    }
+
+    private List<ParsedLine> parse(BufferedReader reader) throws IOException {
+        List<ParsedLine> lines = new ArrayList<>();
+        Matcher matcher = LINE_PATTERN.matcher("");
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (matcher.reset(line.trim()).matches()) {
+                lines.add(new ParsedLine(Integer.parseInt(matcher.group(1)), matcher.group(2).trim()));
+            }
+        }
+        return lines;
+    }
+
+    private int insert(Long lessonId, List<ParsedLine> lines) {
+        if (lines.isEmpty()) {
+            return 0;
+        }
+        LessonEntity lesson = lessonRepository.getReferenceById(lessonId);
+        List<ChallengeEntity> challenges = lines.parallelStream()
+                .map(line -> ChallengeEntity.builder()
+                        .fullSentence(line.fullSentence())
+                        .orderIndex(line.orderIndex())
+                        .wordData(createWordData(line.fullSentence()))
+                        .lesson(lesson)
+                        .startTime(0.0) // cần được xử lý
+                        .endTime(0.0) // cần được xử lý
+                        .build())
+                .toList();
+        challengeRepository.batchInsert(challenges);
+        answerMatcherCache.invalidateLesson(lessonId);
+        catalogService.invalidate();
+        return challenges.size();
+    }
+
+    private String createWordData(String fullSentence) {
+        try {
+            List<List<String>> wordSegments = TextSegmentationUtil.segmentSentence(fullSentence);
+            List<WordInfo> words = new ArrayList<>(wordSegments.size());
+            for (int i = 0; i < wordSegments.size(); i++) {
+                WordInfo wordInfo = new WordInfo();
+                wordInfo.setIndex(i);
+                wordInfo.setAcceptableAnswers(wordSegments.get(i));
+                words.add(wordInfo);
+            }
+            return objectMapper.writeValueAsString(WordData.builder().words(words).build());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error creating word data for sentence: " + fullSentence, e);
+        }
+    }
+
+    private static Long parseLessonId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record ParsedLine(int orderIndex, String fullSentence) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.audioservice.service.Impl;
+
+import com.example.audioservice.entity.ChallengeEntity;
+import com.example.audioservice.model.DTO.WordData;
+import com.example.audioservice.model.DTO.WordInfo;
+import com.example.audioservice.repository.ChallengeRepository;
+import com.example.audioservice.service.AnswerMatcherCache;
+import com.example.audioservice.utils.AnswerMatcher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU of compiled answer keys keyed by (lessonId, orderIndex). Changes are announced on
+ * {@code challenge-changes} so every instance drops its copies of the lesson.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AnswerMatcherCacheImpl implements AnswerMatcherCache {
+    private static final String CHALLENGE_CHANGES_TOPIC = "challenge-changes";
+
+    @Value("${challenge.matcher-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final ChallengeRepository challengeRepository;
+    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    private final Map<Key, AnswerMatcher> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, AnswerMatcher> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    // bumped by every invalidation, so a load that raced with one is not cached
+    private long generation;
+
+    @Override
+    public AnswerMatcher get(Long lessonId, Integer orderIndex) {
+        Key key = new Key(lessonId, orderIndex);
+        long loadGeneration;
+        synchronized (cache) {
+            AnswerMatcher cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        ChallengeEntity challenge = challengeRepository.findByOrderIndexAndLesson_Id(orderIndex, lessonId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Challenge not found"));
+        AnswerMatcher matcher = compile(challenge);
+        synchronized (cache) {
+            if (generation == loadGeneration) {
+                cache.put(key, matcher);
+            }
+        }
+        return matcher;
+    }
+
+    @Override
+    public void invalidateLesson(Long lessonId) {
+        evictLesson(lessonId);
+        try {
+            kafkaTemplate.send(CHALLENGE_CHANGES_TOPIC, String.valueOf(lessonId), String.valueOf(lessonId))
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.warn("Challenge change of lesson {} not announced: {}", lessonId, ex.getMessage());
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("Challenge change of lesson {} not announced: {}", lessonId, e.getMessage());
+        }
+    }
+
+    @KafkaListener(topics = CHALLENGE_CHANGES_TOPIC, groupId = "challenge-changes-#{T(java.util.UUID).randomUUID()}",
+            containerFactory = "broadcastKafkaListenerContainerFactory")
+    public void onChallengeChange(String lessonId) {
+        try {
+            evictLesson(Long.valueOf(lessonId));
+        } catch (NumberFormatException e) {
+            log.warn("Dropping unreadable challenge change: {}", lessonId);
+        }
+    }
+
+    private void evictLesson(Long lessonId) {
+        synchronized (cache) {
+            generation++;
+            cache.keySet().removeIf(key -> key.lessonId().equals(lessonId));
+        }
+    }
+
+    private AnswerMatcher compile(ChallengeEntity challenge) {
+        try {
+            WordData wordData = objectMapper.readValue(challenge.getWordData(), WordData.class);
+            List<List<String>> acceptableAnswers = wordData.getWords().stream()
+                    .map(WordInfo::getAcceptableAnswers)
+                    .toList();
+            return new AnswerMatcher(challenge.getId(), challenge.getFullSentence(), acceptableAnswers);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing challenge data");
+        }
+    }
+
+    private record Key(Long lessonId, Integer orderIndex) {
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.audioservice.service.Impl;
+
+import com.example.audioservice.model.DTO.CachedAudio;
+import com.example.audioservice.model.Response.AudioCacheStats;
+import com.example.audioservice.service.AudioCacheService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded LRU cache of lesson audio on local disk, keyed by URL. A hit only asks the origin whether the file
+ * changed (HEAD, comparing ETag or Last-Modified/Content-Length) once the entry is older than the revalidation TTL.
+ * Files are named {@code <sha256(url)>_<sha256(validator)>_<sha256(content)>.audio}, so the index can be rebuilt
+ * after a restart; rebuilt entries are revalidated on first use.
+ */
+@Service
+@Slf4j
+public class AudioCacheServiceImpl implements AudioCacheService {
+    private static final String SUFFIX = ".audio";
+
+    @Value("${audio.cache.directory:${temp.audio.directory:/tmp/audio}/cache}")
+    private String cacheDirectory;
+
+    @Value("${audio.cache.max-size-mb:2048}")
+    private long maxSizeMb;
+
+    @Value("${audio.cache.revalidate-after-seconds:300}")
+    private long revalidateAfterSeconds;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    // access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private long sizeBytes;
+    private long hits;
+    private long misses;
+    private long coalescedWaits;
+    private long evictions;
+    private long bytesDownloaded;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path dir = Paths.get(cacheDirectory);
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> existing = files.sorted(Comparator.comparingLong(this::lastModified)).toList();
+            for (Path file : existing) {
+                String name = file.getFileName().toString();
+                String[] parts = name.endsWith(SUFFIX)
+                        ? name.substring(0, name.length() - SUFFIX.length()).split("_")
+                        : new String[0];
+                if (parts.length != 3) {
+                    // leftovers of interrupted downloads, or files named by an older key scheme
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                String key = parts[0];
+                Entry entry = new Entry(file, parts[1], parts[2], Files.size(file));
+                entries.put(key, entry);
+                sizeBytes += entry.size;
+            }
+        }
+        synchronized (this) {
+            evictIfNeeded();
+        }
+        log.info("Audio cache at {} loaded with {} entries ({} bytes)", dir, entries.size(), sizeBytes);
+    }
+
+    @Override
+    public CachedAudio acquire(String audioUrl) throws Exception {
+        String key = sha256Hex(audioUrl.getBytes(StandardCharsets.UTF_8));
+        while (true) {
+            Entry cached;
+            synchronized (this) {
+                cached = entries.get(key);
+                if (cached != null && !Files.exists(cached.path)) {
+                    log.warn("Cached audio {} is gone from disk, downloading it again", cached.path);
+                    drop(key, cached);
+                    cached = null;
+                }
+                if (cached != null && !isStale(cached)) {
+                    hits++;
+                    return pin(cached);
+                }
+                if (cached != null) {
+                    // claim the revalidation; other callers keep using the copy meanwhile
+                    cached.validatedAt = System.currentTimeMillis();
+                }
+            }
+
+            if (cached != null) {
+                if (isUnchanged(audioUrl, cached)) {
+                    synchronized (this) {
+                        if (entries.get(key) == cached && Files.exists(cached.path)) {
+                            hits++;
+                            return pin(cached);
+                        }
+                    }
+                    continue;
+                }
+                synchronized (this) {
+                    if (entries.get(key) == cached) {
+                        drop(key, cached);
+                    }
+                }
+            }
+
+            CompletableFuture<Entry> fill = new CompletableFuture<>();
+            CompletableFuture<Entry> running = inFlight.putIfAbsent(key, fill);
+            if (running != null) {
+                // someone else is downloading this key: wait for it, then pin the entry on the next loop
+                synchronized (this) {
+                    coalescedWaits++;
+                }
+                try {
+                    running.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+                continue;
+            }
+
+            try {
+                Entry entry = download(audioUrl, key);
+                CachedAudio handle;
+                synchronized (this) {
+                    misses++;
+                    bytesDownloaded += entry.size;
+                    Entry previous = entries.put(key, entry);
+                    if (previous != null) {
+                        sizeBytes -= previous.size;
+                        if (!previous.path.equals(entry.path)) {
+                            discard(previous);
+                        }
+                    }
+                    sizeBytes += entry.size;
+                    handle = pin(entry);
+                    evictIfNeeded();
+                }
+                fill.complete(entry);
+                return handle;
+            } catch (Exception e) {
+                fill.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, fill);
+            }
+        }
+    }
+
+    @Override
+    public synchronized AudioCacheStats getStats() {
+        int pinned = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.pins > 0) {
+                pinned++;
+            }
+        }
+        return AudioCacheStats.builder()
+                .entries(entries.size())
+                .pinnedEntries(pinned)
+                .sizeBytes(sizeBytes)
+                .maxSizeBytes(maxSizeBytes())
+                .hits(hits)
+                .misses(misses)
+                .coalescedWaits(coalescedWaits)
+                .evictions(evictions)
+                .bytesDownloaded(bytesDownloaded)
+                .build();
+    }
+
+    private boolean isStale(Entry entry) {
+        return System.currentTimeMillis() - entry.validatedAt >= revalidateAfterSeconds * 1000;
+    }
+
+    // an unreachable origin keeps the cached copy in use; it is asked again after the next TTL
+    private boolean isUnchanged(String audioUrl, Entry entry) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(audioUrl))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200 && validatorHash(response.headers()).equals(entry.validatorHash);
+        } catch (IOException e) {
+            log.warn("Could not revalidate cached audio {}: {}", audioUrl, e.getMessage());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private static String validatorHash(HttpHeaders headers) {
+        String validator = headers.firstValue("ETag")
+                .orElseGet(() -> headers.firstValue("Last-Modified").orElse("")
+                        + "/" + headers.firstValue("Content-Length").orElse(""));
+        return sha256Hex(validator.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Entry download(String audioUrl, String key) throws Exception {
+        log.info("Downloading audio into cache: {}", audioUrl);
+        Path dir = Paths.get(cacheDirectory);
+        Path partial = dir.resolve(key + ".part");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(audioUrl)).GET().build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("Error downloading audio " + audioUrl + ": HTTP " + response.statusCode());
+        }
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new DigestInputStream(response.body(), digest)) {
+            Files.copy(in, partial, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        String validatorHash = validatorHash(response.headers());
+        Path file = dir.resolve(key + "_" + validatorHash + "_" + contentHash + SUFFIX);
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Entry entry = new Entry(file, validatorHash, contentHash, Files.size(file));
+        entry.validatedAt = System.currentTimeMillis();
+        return entry;
+    }
+
+    private CachedAudio pin(Entry entry) {
+        entry.pins++;
+        return new CachedAudio(entry.path, entry.contentHash, entry.size, () -> release(entry));
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.pins--;
+        // a file that vanished and was downloaded again can come back under the same name
+        if (entry.discarded && entry.pins == 0
+                && entries.values().stream().noneMatch(live -> live.path.equals(entry.path))) {
+            delete(entry);
+        }
+        evictIfNeeded();
+    }
+
+    private void drop(String key, Entry entry) {
+        entries.remove(key);
+        sizeBytes -= entry.size;
+        discard(entry);
+    }
+
+    // a replaced entry may still be read by a pinned caller; its file goes with the last release
+    private void discard(Entry entry) {
+        entry.discarded = true;
+        if (entry.pins == 0) {
+            delete(entry);
+        }
+    }
+
+    private void delete(Entry entry) {
+        try {
+            Files.deleteIfExists(entry.path);
+        } catch (IOException e) {
+            log.warn("Failed to delete cache file {}: {}", entry.path, e.getMessage());
+        }
+    }
+
+    private void evictIfNeeded() {
+        long limit = maxSizeBytes();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (sizeBytes > limit && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.pins > 0) {
+                continue;
+            }
+            iterator.remove();
+            sizeBytes -= entry.size;
+            evictions++;
+            delete(entry);
+        }
+    }
+
+    private long maxSizeBytes() {
+        return maxSizeMb * 1024 * 1024;
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final Path path;
+        private final String validatorHash;
+        private final String contentHash;
+        private final long size;
+        private int pins;
+        // 0 for entries found on disk at startup, so they are revalidated on first use
+        private long validatedAt;
+        private boolean discarded;
+
+        private Entry(Path path, String validatorHash, String contentHash, long size) {
+            this.path = path;
+            this.validatorHash = validatorHash;
+            this.contentHash = contentHash;
+            this.size = size;
+        }
+    }
+}
@@ -1,34 +1,49 @@
 package com.example.audioservice.service.Impl;
 
 import com.example.audioservice.model.DTO.AudioSegment;
+import com.example.audioservice.model.DTO.AudioSourceInfo;
+import com.example.audioservice.model.DTO.CachedAudio;
+import com.example.audioservice.model.DTO.SegmentationMode;
 import com.example.audioservice.model.Response.AudioSegmentResponse;
+import com.example.audioservice.service.AudioCacheService;
 import com.example.audioservice.service.AudioProcessingService;
-import com.google.cloud.storage.BlobId;
-import com.google.cloud.storage.BlobInfo;
-import com.google.cloud.storage.Storage;
+import com.example.audioservice.service.StorageService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.bramp.ffmpeg.FFmpeg;
 import net.bramp.ffmpeg.FFmpegExecutor;
 import net.bramp.ffmpeg.FFprobe;
 import net.bramp.ffmpeg.builder.FFmpegBuilder;
+import net.bramp.ffmpeg.builder.FFmpegOutputBuilder;
+import net.bramp.ffmpeg.probe.FFmpegProbeResult;
+import net.bramp.ffmpeg.probe.FFmpegStream;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import com.google.firebase.cloud.StorageClient;
-import java.io.InputStream;
-import java.net.URL;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class AudioProcessingServiceImpl implements AudioProcessingService {
+    private static final String CLIP_CODEC = "mp3";
+    private static final int CLIP_SAMPLE_RATE = 44100;
+    private static final long CLIP_BIT_RATE = 128000;
+
     @Value("${ffmpeg.path:/usr/bin/ffmpeg}")
     private String ffmpegPath;
 
@@ -38,87 +53,177 @@ public class AudioProcessingServiceImpl implements AudioProcessingService {
     @Value("${temp.audio.directory:/tmp/audio}")
     private String tempAudioDirectory;
 
-    @Value("${fireBase_BUCKETNAME}")
-    private String bucketName;
+    @Value("${audio.segment.per-lesson-concurrency:0}")
+    private int perLessonConcurrency;
+
+    @Value("${audio.segment.mode:PER_SEGMENT}")
+    private SegmentationMode defaultMode;
+
+    @Value("${audio.segment.outputs-per-pass:32}")
+    private int outputsPerPass;
+
+    private final ThreadPoolTaskExecutor segmentTaskExecutor;
+    private final AudioCacheService audioCacheService;
+    private final StorageService storageService;
+
+    // only lessons being cut right now have an entry; the last caller to leave removes it
+    private final Map<Long, LessonPermits> lessonPermits = new ConcurrentHashMap<>();
+    private volatile FFmpegExecutor executor;
+    private volatile FFprobe ffprobe;
 
     @Override
     public List<AudioSegmentResponse> segmentAudio(String audioUrl, List<AudioSegment> segments) throws Exception {
-        List<AudioSegmentResponse> responses = new ArrayList<>();
+        return segmentAudio(audioUrl, null, segments, defaultMode, null);
+    }
+
+    @Override
+    public List<AudioSegmentResponse> segmentAudio(String audioUrl, AudioSourceInfo source,
+                                                   List<AudioSegment> segments) throws Exception {
+        return segmentAudio(audioUrl, source, segments, defaultMode, null);
+    }
+
+    @Override
+    public List<AudioSegmentResponse> segmentAudio(String audioUrl, AudioSourceInfo source,
+                                                   List<AudioSegment> segments, SegmentationMode mode,
+                                                   Consumer<AudioSegmentResponse> onSegmentDone) throws Exception {
+        if (segments.isEmpty()) {
+            return new ArrayList<>();
+        }
+        SegmentationMode cutMode = mode != null ? mode : defaultMode;
+        boolean streamCopy = source != null && source.matches(CLIP_CODEC, CLIP_SAMPLE_RATE, CLIP_BIT_RATE);
+        log.debug("Segmenting {} clips from {} in {} mode (stream copy: {})", segments.size(), audioUrl, cutMode, streamCopy);
 
         Path tempDir = Paths.get(tempAudioDirectory);
         if (!Files.exists(tempDir)) {
             Files.createDirectories(tempDir);
         }
 
-        String localAudioPath = downloadAudioFromFirebase(audioUrl);
+        CachedAudio sourceAudio = audioCacheService.acquire(audioUrl);
+        String localAudioPath = sourceAudio.getPath().toString();
+        AudioSegmentResponse[] responses = new AudioSegmentResponse[segments.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        Long lessonId = segments.get(0).getLessonId();
+        Semaphore permits = joinLesson(lessonId);
 
         try {
-            log.debug("Initializing FFmpeg with path: {} and FFprobe with path: {}", ffmpegPath, ffprobePath);
-            FFmpeg ffmpeg = new FFmpeg(ffmpegPath);
-            FFprobe ffprobe = new FFprobe(ffprobePath);
-            FFmpegExecutor executor = new FFmpegExecutor(ffmpeg, ffprobe);
+            FFmpegExecutor ffmpegExecutor = getExecutor();
 
-            for (AudioSegment segment : segments) {
-                try {
-                    AudioSegmentResponse response = processAudioSegment(
-                            executor, localAudioPath, segment
-                    );
-                    responses.add(response);
-                } catch (Exception e) {
-                    log.error("Error processing segment for challenge {}: {}",
-                            segment.getChallengeId(), e.getMessage());
+            // the calling thread only hands a batch to the pool once the lesson has a free permit,
+            // so one large lesson never holds more than its share of the workers
+            for (int[] batch : planBatches(segments, cutMode)) {
+                permits.acquire();
+                futures.add(CompletableFuture
+                        .runAsync(() -> cutBatch(ffmpegExecutor, localAudioPath, segments, batch, responses,
+                                cutMode, streamCopy, onSegmentDone), segmentTaskExecutor)
+                        .whenComplete((result, ex) -> permits.release()));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            return new ArrayList<>(Arrays.asList(responses));
+        } finally {
+            // never let the source be evicted while a worker may still be reading it
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .exceptionally(ex -> null)
+                    .join();
+            leaveLesson(lessonId);
+            sourceAudio.close();
+        }
+    }
 
-                    AudioSegmentResponse errorResponse = AudioSegmentResponse.builder()
-                            .challengeId(segment.getChallengeId())
-                            .fullSentence(segment.getFullSentence())
-                            .status("ERROR")
-                            .error(e.getMessage())
-                            .build();
-                    responses.add(errorResponse);
-                }
+    private Semaphore joinLesson(Long lessonId) {
+        return lessonPermits.compute(lessonId, (id, entry) -> {
+            LessonPermits joined = entry != null ? entry : new LessonPermits(new Semaphore(lessonConcurrency(), true));
+            joined.callers++;
+            return joined;
+        }).permits;
+    }
+
+    // every batch of the caller has finished and released its permit, so with no callers left all permits are free
+    private void leaveLesson(Long lessonId) {
+        lessonPermits.computeIfPresent(lessonId, (id, entry) -> --entry.callers == 0 ? null : entry);
+    }
+
+    /**
+     * PER_SEGMENT: one batch per segment. SINGLE_PASS: segments sorted by start time and grouped so
+     * every group is cut by one ffmpeg run that decodes its stretch of the source exactly once.
+     */
+    private List<int[]> planBatches(List<AudioSegment> segments, SegmentationMode mode) {
+        List<int[]> batches = new ArrayList<>();
+        if (mode != SegmentationMode.SINGLE_PASS) {
+            for (int i = 0; i < segments.size(); i++) {
+                batches.add(new int[]{i});
             }
+            return batches;
+        }
+        Integer[] order = new Integer[segments.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> segments.get(i).getStartTime()));
 
-        } finally {
-            cleanupTempFile(localAudioPath);
+        int batchSize = outputsPerPass > 0 ? outputsPerPass : order.length;
+        for (int from = 0; from < order.length; from += batchSize) {
+            int to = Math.min(order.length, from + batchSize);
+            int[] batch = new int[to - from];
+            for (int i = from; i < to; i++) {
+                batch[i - from] = order[i];
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private void cutBatch(FFmpegExecutor ffmpegExecutor, String inputPath, List<AudioSegment> segments,
+                          int[] batch, AudioSegmentResponse[] responses, SegmentationMode mode, boolean streamCopy,
+                          Consumer<AudioSegmentResponse> onSegmentDone) {
+        if (mode == SegmentationMode.SINGLE_PASS) {
+            cutInOnePass(ffmpegExecutor, inputPath, segments, batch, responses, streamCopy, onSegmentDone);
+            return;
+        }
+        for (int index : batch) {
+            AudioSegment segment = segments.get(index);
+            try {
+                responses[index] = processAudioSegment(ffmpegExecutor, inputPath, segment, streamCopy);
+            } catch (Exception e) {
+                log.error("Error processing segment for challenge {}: {}",
+                        segment.getChallengeId(), e.getMessage());
+                responses[index] = errorResponse(segment, e.getMessage());
+            }
+            notifySegmentDone(onSegmentDone, responses[index]);
         }
-        return responses;
     }
+
+    private void notifySegmentDone(Consumer<AudioSegmentResponse> onSegmentDone, AudioSegmentResponse response) {
+        if (onSegmentDone == null) {
+            return;
+        }
+        try {
+            onSegmentDone.accept(response);
+        } catch (Exception e) {
+            log.warn("Segment progress callback failed for challenge {}: {}", response.getChallengeId(), e.getMessage());
+        }
+    }
+
     private AudioSegmentResponse processAudioSegment(FFmpegExecutor executor,
                                                      String inputPath,
-                                                     AudioSegment segment) throws Exception {
+                                                     AudioSegment segment,
+                                                     boolean streamCopy) throws Exception {
 
-       String outputFileName = String.format("challenge_%d_%d.mp3", segment.getLessonId(), segment.getOrderIndex());
-        String outputPath = Paths.get(tempAudioDirectory, outputFileName).toString();
+        String outputFileName = outputFileName(segment);
+        String outputPath = tempOutputPath(outputFileName);
 
         try {
-            double startSeconds = segment.getStartTime() / 1000.0;
-            double durationSeconds = (segment.getEndTime() - segment.getStartTime()) / 1000.0;
-
+            // input-side seek: ffmpeg jumps to the clip instead of decoding everything before it
             FFmpegBuilder builder = new FFmpegBuilder()
                     .setInput(inputPath)
-                    .overrideOutputFiles(true)
-                    .addOutput(outputPath)
-                    .setFormat("mp3")
-                    .setAudioCodec("mp3")
-                    .setAudioBitRate(128000)
-                    .setAudioSampleRate(44100)
-                    .setStartOffset((long)(startSeconds * 1000), java.util.concurrent.TimeUnit.MILLISECONDS)
-                    .setDuration((long)(durationSeconds * 1000), java.util.concurrent.TimeUnit.MILLISECONDS)
-                    .done();
+                    .setStartOffset(segment.getStartTime().longValue(), TimeUnit.MILLISECONDS)
+                    .overrideOutputFiles(true);
+            addClipOutput(builder, outputPath, 0,
+                    (long) (segment.getEndTime() - segment.getStartTime()), streamCopy);
 
             executor.createJob(builder).run();
 
             String segmentUrl = uploadSegmentToFirebase(outputPath, outputFileName);
-
-            return AudioSegmentResponse.builder()
-                    .challengeId(segment.getChallengeId())
-                    .orderIndex(segment.getOrderIndex())
-                    .fullSentence(segment.getFullSentence())
-                    .audioUrl(segmentUrl)
-                    .startTime(segment.getStartTime())
-                    .endTime(segment.getEndTime())
-                    .status("SUCCESS")
-                    .build();
+            return successResponse(segment, segmentUrl);
 
         } finally {
             // Cleanup temp segment file
@@ -126,45 +231,161 @@ public class AudioProcessingServiceImpl implements AudioProcessingService {
         }
     }
 
-    @Override
-    public String downloadAudioFromFirebase(String firebaseUrl) throws Exception {
-        log.info("Downloading audio from: {}", firebaseUrl);
+    private void cutInOnePass(FFmpegExecutor executor, String inputPath, List<AudioSegment> segments,
+                              int[] batch, AudioSegmentResponse[] responses, boolean streamCopy,
+                              Consumer<AudioSegmentResponse> onSegmentDone) {
+        // seek the input to the first clip of the batch; clip offsets are relative to that point
+        long passStartMs = segments.get(batch[0]).getStartTime().longValue();
+        String[] outputPaths = new String[batch.length];
 
-        // Tạo tên file temp
-        String tempFileName = "temp_audio_" + UUID.randomUUID() + ".mp3";
-        String tempFilePath = Paths.get(tempAudioDirectory, tempFileName).toString();
+        FFmpegBuilder builder = new FFmpegBuilder()
+                .setInput(inputPath)
+                .setStartOffset(passStartMs, TimeUnit.MILLISECONDS)
+                .overrideOutputFiles(true);
+        for (int i = 0; i < batch.length; i++) {
+            AudioSegment segment = segments.get(batch[i]);
+            outputPaths[i] = tempOutputPath(outputFileName(segment));
+            addClipOutput(builder, outputPaths[i],
+                    segment.getStartTime().longValue() - passStartMs,
+                    (long) (segment.getEndTime() - segment.getStartTime()), streamCopy);
+        }
 
-        try (InputStream inputStream = new URL(firebaseUrl).openStream()) {
-            Files.copy(inputStream, Paths.get(tempFilePath), StandardCopyOption.REPLACE_EXISTING);
-            log.info("Audio downloaded to: {}", tempFilePath);
-            return tempFilePath;
+        try {
+            executor.createJob(builder).run();
+            for (int i = 0; i < batch.length; i++) {
+                AudioSegment segment = segments.get(batch[i]);
+                try {
+                    String segmentUrl = uploadSegmentToFirebase(outputPaths[i], outputFileName(segment));
+                    responses[batch[i]] = successResponse(segment, segmentUrl);
+                } catch (Exception e) {
+                    log.error("Error uploading segment for challenge {}: {}",
+                            segment.getChallengeId(), e.getMessage());
+                    responses[batch[i]] = errorResponse(segment, e.getMessage());
+                }
+                notifySegmentDone(onSegmentDone, responses[batch[i]]);
+            }
+        } catch (Exception e) {
+            log.error("Single-pass segmentation failed for {} segments: {}", batch.length, e.getMessage());
+            for (int index : batch) {
+                if (responses[index] == null) {
+                    responses[index] = errorResponse(segments.get(index), e.getMessage());
+                    notifySegmentDone(onSegmentDone, responses[index]);
+                }
+            }
+        } finally {
+            for (String outputPath : outputPaths) {
+                cleanupTempFile(outputPath);
+            }
         }
     }
 
+    private void addClipOutput(FFmpegBuilder builder, String outputPath, long offsetMs, long durationMs,
+                               boolean streamCopy) {
+        FFmpegOutputBuilder output = builder.addOutput(outputPath)
+                .setFormat("mp3")
+                .setDuration(durationMs, TimeUnit.MILLISECONDS);
+        if (offsetMs > 0) {
+            output.setStartOffset(offsetMs, TimeUnit.MILLISECONDS);
+        }
+        if (streamCopy) {
+            // source is already in the clip format: copy whole MP3 frames, cuts land on frame boundaries
+            output.setAudioCodec("copy");
+        } else {
+            output.setAudioCodec(CLIP_CODEC)
+                    .setAudioBitRate(CLIP_BIT_RATE)
+                    .setAudioSampleRate(CLIP_SAMPLE_RATE);
+        }
+        output.done();
+    }
+
     @Override
-    public String uploadSegmentToFirebase(String segmentFilePath, String fileName) throws Exception {
-        log.info("Uploading segment to Firebase: {}", fileName);
+    public AudioSourceInfo probeAudio(String audioUrl) throws Exception {
+        FFmpegProbeResult probe;
+        try (CachedAudio audio = audioCacheService.acquire(audioUrl)) {
+            probe = getProbe().probe(audio.getPath().toString());
+        }
+        for (FFmpegStream stream : probe.getStreams()) {
+            if (stream.codec_type == FFmpegStream.CodecType.AUDIO) {
+                return AudioSourceInfo.builder()
+                        .codec(stream.codec_name)
+                        .sampleRate(stream.sample_rate)
+                        .bitRate(stream.bit_rate)
+                        .build();
+            }
+        }
+        throw new IllegalStateException("No audio stream found in " + audioUrl);
+    }
 
-        Storage storage = StorageClient.getInstance().bucket().getStorage();
-        // Tạo path cho segment trong Firebase
-        String firebaseFileName = "audio_segments/" + fileName;
+    @Override
+    public String getEncodingProfile() {
+        return CLIP_CODEC + "-" + CLIP_BIT_RATE + "-" + CLIP_SAMPLE_RATE;
+    }
 
-        BlobId blobId = BlobId.of(bucketName, firebaseFileName);
-        BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
-                .setContentType("audio/mpeg")
-                .setContentDisposition("inline")
+    private String outputFileName(AudioSegment segment) {
+        return String.format("challenge_%d_%d.mp3", segment.getLessonId(), segment.getOrderIndex());
+    }
+
+    private String tempOutputPath(String outputFileName) {
+        // unique local name so two runs of the same lesson never write the same temp file
+        return Paths.get(tempAudioDirectory, UUID.randomUUID() + "_" + outputFileName).toString();
+    }
+
+    private AudioSegmentResponse successResponse(AudioSegment segment, String segmentUrl) {
+        return AudioSegmentResponse.builder()
+                .challengeId(segment.getChallengeId())
+                .orderIndex(segment.getOrderIndex())
+                .fullSentence(segment.getFullSentence())
+                .audioUrl(segmentUrl)
+                .startTime(segment.getStartTime())
+                .endTime(segment.getEndTime())
+                .status("SUCCESS")
+                .build();
+    }
+
+    private AudioSegmentResponse errorResponse(AudioSegment segment, String error) {
+        return AudioSegmentResponse.builder()
+                .challengeId(segment.getChallengeId())
+                .orderIndex(segment.getOrderIndex())
+                .fullSentence(segment.getFullSentence())
+                .status("ERROR")
+                .error(error)
                 .build();
+    }
+
+    private FFmpegExecutor getExecutor() throws IOException {
+        // FFmpeg/FFprobe run a version check on construction, so build them once and reuse
+        FFmpegExecutor current = executor;
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    log.debug("Initializing FFmpeg with path: {} and FFprobe with path: {}", ffmpegPath, ffprobePath);
+                    ffprobe = new FFprobe(ffprobePath);
+                    current = new FFmpegExecutor(new FFmpeg(ffmpegPath), ffprobe);
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
 
-        byte[] fileBytes = Files.readAllBytes(Paths.get(segmentFilePath));
-        storage.create(blobInfo, fileBytes);
+    private FFprobe getProbe() throws IOException {
+        getExecutor();
+        return ffprobe;
+    }
 
-        String encodedFileName = URLEncoder.encode(firebaseFileName, StandardCharsets.UTF_8);
-        String audioUrl = String.format(
-                "https://firebasestorage.googleapis.com/v0/b/%s/o/%s?alt=media",
-                bucketName,
-                encodedFileName
-        );
+    private int lessonConcurrency() {
+        if (perLessonConcurrency > 0) {
+            return perLessonConcurrency;
+        }
+        return Math.max(1, segmentTaskExecutor.getMaxPoolSize() / 2);
+    }
 
+    @Override
+    public String uploadSegmentToFirebase(String segmentFilePath, String fileName) throws Exception {
+        log.info("Uploading segment to Firebase: {}", fileName);
+        String audioUrl = storageService.upload("audio_segments/" + fileName, "audio/mpeg", "inline",
+                Paths.get(segmentFilePath));
         log.info("Segment uploaded successfully: {}", audioUrl);
         return audioUrl;
     }
@@ -179,4 +400,14 @@ public class AudioProcessingServiceImpl implements AudioProcessingService {
             log.warn("Failed to cleanup temp file {}: {}", filePath, e.getMessage());
         }
     }
+
+    // callers is only read and written inside ConcurrentHashMap.compute for the lesson's key
+    private static final class LessonPermits {
+        private final Semaphore permits;
+        private int callers;
+
+        private LessonPermits(Semaphore permits) {
+            this.permits = permits;
+        }
+    }
 }
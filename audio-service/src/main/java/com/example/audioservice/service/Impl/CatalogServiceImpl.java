@@ -0,0 +1,225 @@
+package com.example.audioservice.service.Impl;
+
+import com.example.audioservice.entity.SectionEntity;
+import com.example.audioservice.entity.TopicEntity;
+import com.example.audioservice.model.DTO.CachedJson;
+import com.example.audioservice.model.DTO.CatalogSnapshot;
+import com.example.audioservice.model.DTO.CategoryDTO;
+import com.example.audioservice.model.DTO.LessonChallengeId;
+import com.example.audioservice.model.Response.LessonInfo;
+import com.example.audioservice.model.Response.LessonResponse;
+import com.example.audioservice.model.Response.SectionResponse;
+import com.example.audioservice.model.Response.TopicResponse;
+import com.example.audioservice.repository.CategoryRepository;
+import com.example.audioservice.repository.LessonRepository;
+import com.example.audioservice.repository.SectionRepository;
+import com.example.audioservice.repository.TopicRepository;
+import com.example.audioservice.service.CatalogService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the catalog listings from one immutable snapshot, rebuilt after every write instead of queried per request.
+ * Writes are announced on {@code catalog-changes} so every instance rebuilds; a write inside a transaction is rebuilt
+ * and announced only once it commits. ETags are digests of the serialized bytes, so all instances hand out the same
+ * ETag for the same listing.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogServiceImpl implements CatalogService {
+    private static final String CATALOG_CHANGES_TOPIC = "catalog-changes";
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+    private final CategoryRepository categoryRepository;
+    private final TopicRepository topicRepository;
+    private final SectionRepository sectionRepository;
+    private final LessonRepository lessonRepository;
+    private final ModelMapper modelMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    // bumped by every change; a snapshot built from an older count is stale
+    private final AtomicLong changes = new AtomicLong();
+    private final Object rebuildLock = new Object();
+    private volatile CatalogSnapshot snapshot;
+    private long version;
+    private TransactionTemplate rebuildTransaction;
+
+    @PostConstruct
+    public void init() {
+        // a new transaction: the rebuild may run in afterCommit, while the committed one is still bound
+        rebuildTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        rebuildTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        if (current != null && current.changeCount() == changes.get()) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    @Override
+    public void invalidate() {
+        // inside a write transaction the change is only visible, and only announced, once it commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow();
+                }
+            });
+            return;
+        }
+        invalidateNow();
+    }
+
+    private void invalidateNow() {
+        changes.incrementAndGet();
+        try {
+            kafkaTemplate.send(CATALOG_CHANGES_TOPIC, INSTANCE_ID)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.warn("Catalog change not announced: {}", ex.getMessage());
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("Catalog change not announced: {}", e.getMessage());
+        }
+        refresh();
+    }
+
+    @KafkaListener(topics = CATALOG_CHANGES_TOPIC, groupId = "catalog-changes-#{T(java.util.UUID).randomUUID()}",
+            containerFactory = "broadcastKafkaListenerContainerFactory")
+    public void onCatalogChange(String instanceId) {
+        if (!INSTANCE_ID.equals(instanceId)) {
+            changes.incrementAndGet();
+            refresh();
+        }
+    }
+
+    // rebuilds ahead of the next read; on failure the snapshot stays stale and the next read tries again
+    private void refresh() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Catalog rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    private CatalogSnapshot rebuild() {
+        synchronized (rebuildLock) {
+            long changeCount = changes.get();
+            CatalogSnapshot current = snapshot;
+            if (current != null && current.changeCount() == changeCount) {
+                return current;
+            }
+            long nextVersion = version + 1;
+            // one persistence context, so the topics loaded first are not fetched again for every section
+            CatalogSnapshot rebuilt = rebuildTransaction.execute(status -> build(nextVersion, changeCount));
+            version = nextVersion;
+            snapshot = rebuilt;
+            log.debug("Catalog rebuilt, version {}", nextVersion);
+            return rebuilt;
+        }
+    }
+
+    private CatalogSnapshot build(long version, long changeCount) {
+        List<CategoryDTO> categories = categoryRepository.findAll().stream()
+                .map(entity -> modelMapper.map(entity, CategoryDTO.class))
+                .toList();
+
+        List<TopicEntity> topicEntities = topicRepository.findAll();
+        List<TopicResponse> topics = topicEntities.stream()
+                .map(entity -> modelMapper.map(entity, TopicResponse.class))
+                .toList();
+        Map<Long, Boolean> premiumByTopic = new HashMap<>();
+        Map<Long, List<SectionResponse>> sections = new HashMap<>();
+        for (TopicEntity topic : topicEntities) {
+            premiumByTopic.put(topic.getId(), Integer.valueOf(1).equals(topic.getPremiumTopic()));
+            sections.put(topic.getId(), new ArrayList<>());
+        }
+        sectionRepository.findAll().stream()
+                .filter(section -> section.getTopicEntity() != null)
+                .sorted(Comparator.comparing(SectionEntity::getId))
+                .forEach(section -> sections
+                        .computeIfAbsent(section.getTopicEntity().getId(), id -> new ArrayList<>())
+                        .add(modelMapper.map(section, SectionResponse.class)));
+
+        // rows come ordered by lesson, so each lesson is one run of rows
+        List<LessonInfo> lessonInfos = new ArrayList<>();
+        Map<Long, List<LessonResponse>> lessons = new HashMap<>();
+        LessonInfo currentInfo = null;
+        LessonResponse currentLesson = null;
+        for (LessonChallengeId row : lessonRepository.findAllChallengeIds()) {
+            if (currentInfo == null || !currentInfo.getId().equals(row.getLessonId())) {
+                currentInfo = new LessonInfo();
+                currentInfo.setId(row.getLessonId());
+                currentInfo.setTitle(row.getTitle());
+                currentInfo.setChallengeIds(new ArrayList<>());
+                lessonInfos.add(currentInfo);
+
+                currentLesson = new LessonResponse();
+                currentLesson.setId(row.getLessonId());
+                currentLesson.setTitle(row.getTitle());
+                currentLesson.setCountChallenge(0);
+                if (row.getSectionId() != null) {
+                    lessons.computeIfAbsent(row.getSectionId(), id -> new ArrayList<>()).add(currentLesson);
+                }
+            }
+            if (row.getChallengeId() != null) {
+                currentInfo.getChallengeIds().add(row.getChallengeId());
+                currentLesson.setCountChallenge(currentLesson.getCountChallenge() + 1);
+            }
+        }
+
+        Map<Long, CachedJson> sectionsByTopic = new HashMap<>();
+        sections.forEach((topicId, list) -> sectionsByTopic.put(topicId, serialize(version, list)));
+        Map<Long, CachedJson> lessonsBySection = new HashMap<>();
+        lessons.forEach((sectionId, list) -> lessonsBySection.put(sectionId, serialize(version, list)));
+
+        return new CatalogSnapshot(version, changeCount,
+                serialize(version, categories),
+                serialize(version, topics),
+                premiumByTopic,
+                sectionsByTopic,
+                lessonsBySection,
+                lessonInfos.isEmpty() ? null : serialize(version, lessonInfos));
+    }
+
+    private CachedJson serialize(long version, Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            return new CachedJson(version, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error serializing catalog");
+        }
+    }
+}
@@ -3,26 +3,34 @@ package com.example.audioservice.service.Impl;
 import com.example.audioservice.entity.ChallengeEntity;
 import com.example.audioservice.entity.ChallengeJob;
 import com.example.audioservice.entity.LessonEntity;
-import com.example.audioservice.entity.TranscriptJob;
 import com.example.audioservice.model.DTO.AudioSegment;
+import com.example.audioservice.model.DTO.AudioSourceInfo;
+import com.example.audioservice.model.DTO.CachedAudio;
 import com.example.audioservice.model.DTO.SentenceWithTiming;
-import com.example.audioservice.model.DTO.WordData;
-import com.example.audioservice.model.DTO.WordInfo;
+import com.example.audioservice.model.DTO.TranscriptResult;
+import com.example.audioservice.model.DTO.TranscriptWords;
 import com.example.audioservice.model.Request.CheckRequest;
+import com.example.audioservice.model.Request.PrefixCheckRequest;
 import com.example.audioservice.model.Response.*;
 import com.example.audioservice.repository.ChallengeJobRepository;
 import com.example.audioservice.repository.ChallengeRepository;
 import com.example.audioservice.repository.LessonRepository;
+import com.example.audioservice.service.AnswerKeyService;
+import com.example.audioservice.service.AnswerMatcherCache;
+import com.example.audioservice.service.AudioCacheService;
 import com.example.audioservice.service.AudioProcessingService;
 import com.example.audioservice.service.ChallengeService;
-import com.example.audioservice.utils.TextSegmentationUtil;
+import com.example.audioservice.service.JobStatusService;
+import com.example.audioservice.utils.AnswerMatcher;
+import com.example.audioservice.utils.TranscriptAligner;
+import com.example.audioservice.utils.TranscriptCodec;
+import com.example.audioservice.utils.TranscriptJsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.apache.kafka.common.errors.ResourceNotFoundException;
-import org.checkerframework.checker.units.qual.C;
-import org.hibernate.annotations.ColumnTransformer;
+import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -30,78 +38,52 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.Instant;
-import java.time.LocalDateTime;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ChallengeServiceImpl implements ChallengeService {
     private final ChallengeRepository challengeRepository;
     private final LessonRepository lessonRepository;
     private final ModelMapper modelMapper;
     private final ObjectMapper objectMapper;
     private final ChallengeJobRepository challengeJobRepository;
-    private static final Pattern LINE_PATTERN = Pattern.compile("^(\\d+)\\.\\s*(.*)$");
     private final AudioProcessingService audioProcessingService;
+    private final AudioCacheService audioCacheService;
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final RestTemplate restTemplate;
+    private final JobStatusService jobStatusService;
+    private final AnswerMatcherCache answerMatcherCache;
+    private final AnswerKeyService answerKeyService;
+
+    @Value("${challenge.alignment.min-band:32}")
+    private int alignmentMinBand;
+    @Value("${challenge.alignment.max-cells:16000000}")
+    private long alignmentMaxCells;
+    @Value("${challenge.alignment.min-confidence:0.5}")
+    private double alignmentMinConfidence;
+
     @Override
     public ResponseEntity<String> addChallenge(String answerKey, Long lessonId) {
-        LessonEntity lesson = lessonRepository.findById(lessonId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,"Lesson Not Found"));
-
-        List<ChallengeEntity> challengeEntities = Arrays.stream(answerKey.split("\n"))
-                .map(String::trim)
-                .filter(line-> line.matches(LINE_PATTERN.pattern().trim()))
-                .map(line ->{
-                    Matcher matcher = LINE_PATTERN.matcher(line);
-                    if(matcher.matches()) {
-                        Integer orderIndex = Integer.parseInt(matcher.group(1).trim());
-                        String fullSentence = matcher.group(2).trim();
-                        String wordData = createWordDataFromSentence(fullSentence);
-                        return ChallengeEntity.builder()
-                                .fullSentence(fullSentence)
-                                .orderIndex(orderIndex)
-                                .wordData(wordData)
-                                .lesson(lesson)
-                                .startTime(0.0) // cần được xử lý
-                                .endTime(0.0) // cần được xử lý
-                                .build();
-                    }
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid challenge format: " + line);
-                })
-                .collect(Collectors.toList());
-        challengeRepository.saveAll(challengeEntities);
-        return new ResponseEntity<>("Add challenge successful", HttpStatus.CREATED);
-    }
-
-    private String createWordDataFromSentence(String fullSentence) {
         try {
-            List<List<String>> wordSegments = TextSegmentationUtil.segmentSentence(fullSentence);
-            List<WordInfo> words = new ArrayList<>();
-            for (int i = 0; i < wordSegments.size(); i++) {
-                WordInfo wordInfo = new WordInfo();
-                wordInfo.setIndex(i);
-                wordInfo.setAcceptableAnswers(wordSegments.get(i));
-                words.add(wordInfo);
-            }
-            WordData wordData = WordData.builder().words(words).build();
-
-            return objectMapper.writeValueAsString(wordData);
-
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error creating word data for sentence: " + fullSentence, e);
+            answerKeyService.importLesson(lessonId, new StringReader(answerKey));
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable answer key", e);
         }
+        return new ResponseEntity<>("Add challenge successful", HttpStatus.CREATED);
     }
 
     @Override
@@ -136,32 +118,27 @@ public class ChallengeServiceImpl implements ChallengeService {
     }
 
     @Override
-    public ResponseEntity<Map<String, Object>> checkAnswer(CheckRequest checkRequest) {
-        ChallengeEntity challenge = challengeRepository.findByOrderIndexAndLesson_Id(checkRequest.getOrderIndex(), checkRequest.getLessonId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Challenge not found"));
-        try {
-            WordData wordData = objectMapper.readValue(challenge.getWordData(), WordData.class);
-            List<List<String>> wordSegments = wordData.getWords().stream()
-                    .map(WordInfo::getAcceptableAnswers)
-                    .collect(Collectors.toList());
-            Map<String, Object> result = TextSegmentationUtil.getDetailedResult(wordSegments, checkRequest.getUserAnswers());
-            result.put("challengeId", challenge.getId());
-            result.put("lessonId", checkRequest.getLessonId());
-            result.put("fullSentence", challenge.getFullSentence());
+    public ResponseEntity<AnswerCheckResult> checkAnswer(CheckRequest checkRequest) {
+        AnswerMatcher matcher = answerMatcherCache.get(checkRequest.getLessonId(), checkRequest.getOrderIndex());
+        AnswerCheckResult result = matcher.check(checkRequest.getUserAnswers(), checkRequest.isIncludeAnswers());
+        result.setLessonId(checkRequest.getLessonId());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
 
-            boolean allCorrect = (Boolean) result.get("allCorrect");
-            result.put("isPass", allCorrect ? 1 : -1);
-            return new ResponseEntity<>(result, HttpStatus.OK);
-        }
-        catch (JsonProcessingException  e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error processing challenge data");
+    @Override
+    public PrefixCheckResult checkPrefix(PrefixCheckRequest prefixCheckRequest) {
+        if (prefixCheckRequest.getLessonId() == null || prefixCheckRequest.getOrderIndex() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lessonId and orderIndex are required");
         }
+        AnswerMatcher matcher = answerMatcherCache.get(prefixCheckRequest.getLessonId(), prefixCheckRequest.getOrderIndex());
+        PrefixCheckResult result = matcher.checkPrefix(prefixCheckRequest.getTypedWords());
+        result.setSeq(prefixCheckRequest.getSeq());
+        return result;
     }
   @Override
-    public ResponseEntity<Map<String, Object>> checkUserAnswer(CheckRequest checkRequest, String usernameFromToken) {
-        Map<String, Object> result = checkAnswer(checkRequest).getBody();
-        result.put("username", usernameFromToken);
+    public ResponseEntity<AnswerCheckResult> checkUserAnswer(CheckRequest checkRequest, String usernameFromToken) {
+        AnswerCheckResult result = checkAnswer(checkRequest).getBody();
+        result.setUsername(usernameFromToken);
         try {
             String jobId = UUID.randomUUID().toString();
             String jsonMessage = objectMapper.writeValueAsString(result);
@@ -232,15 +209,30 @@ public class ChallengeServiceImpl implements ChallengeService {
     @KafkaListener(topics = "transcript-responses", groupId = "challenge-group" , containerFactory = "challengeKafkaListenerContainerFactory")
     public void handleTranscriptResponse(
             @Header("kafka_receivedMessageKey") String challengeJobId,
-            String message)  {
-        Optional<ChallengeJob> challengeJob = challengeJobRepository.findByJobId(challengeJobId);
-        if (challengeJob.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Challenge job not found");
+            byte[] message)  {
+        // the producer stores the transcript on the row before sending; the message is only a fallback copy
+        if (TranscriptCodec.isEncoded(message)) {
+            challengeJobRepository.attachTranscript(challengeJobId, message, null);
+        } else {
+            challengeJobRepository.attachTranscript(challengeJobId, null, new String(message, StandardCharsets.UTF_8));
         }
-        if(!"PENDING".equals(challengeJob.get().getStatus())) {
+        if (challengeJobRepository.transition(challengeJobId, List.of("PENDING"), "PROCESSING", null) == 0) {
+            log.debug("Challenge job {} is missing or no longer pending, transcript response ignored", challengeJobId);
             return;
         }
-        updateJobStatus(challengeJobId, "PROCESSING", message, null);
+        jobStatusService.publish(JobStatusService.CHALLENGE, challengeJobId, "PROCESSING", null);
+    }
+
+    @Override
+    public ChallengeJobStatusResponse getChallengeJobStatus(String challengeJobId) {
+        return challengeJobRepository.findByJobId(challengeJobId)
+                .map(job -> new ChallengeJobStatusResponse(job.getJobId(), job.getStatus(), job.getErrorMessage()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Challenge job not found"));
+    }
+
+    private void updateJobStatus(String challengeJobId, String status, String error) {
+        challengeJobRepository.updateStatus(challengeJobId, status, error);
+        jobStatusService.publish(JobStatusService.CHALLENGE, challengeJobId, status, error);
     }
 
     @Override
@@ -250,168 +242,149 @@ public class ChallengeServiceImpl implements ChallengeService {
             if (jobOpt.isEmpty()) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Challenge job not found");
             }
-            List<ChallengeEntity> challenges = challengeRepository.findByLesson_Id(lessonId);
+            // lesson order: the tolerant alignment walks the answer key and the transcript side by side
+            List<ChallengeEntity> challenges = challengeRepository.findByLesson_IdOrderByOrderIndex(lessonId);
             List<String> fullSentences = challenges.stream()
                     .map(ChallengeEntity::getFullSentence)
                     .collect(Collectors.toList());
 
-            AssemblyResponse response = objectMapper.readValue(jobOpt.get().getResponsePayload(), AssemblyResponse.class);
-    
-            List<AssemblyWordInfoResponse> words = response.getWords();
-            Map<String, SentenceWithTiming> matchingSequences = findMatchingSequences(fullSentences, words);
+            TranscriptWords words = readTranscriptWords(jobOpt.get());
+            // positional: a sentence repeated in the lesson gets the timing of its own occurrence
+            SentenceWithTiming[] matchingSequences = findMatchingSequences(fullSentences, words);
 
             List<ChallengeJobResponse> results = new ArrayList<>();
-            for (ChallengeEntity challenge : challenges) {
-                SentenceWithTiming matchingSequence = matchingSequences.get(challenge.getFullSentence());
+            List<ChallengeEntity> matched = new ArrayList<>();
+            List<Integer> unmatchedOrderIndexes = new ArrayList<>();
+            for (int i = 0; i < challenges.size(); i++) {
+                ChallengeEntity challenge = challenges.get(i);
+                SentenceWithTiming matchingSequence = matchingSequences[i];
 
                 if (matchingSequence != null) {
                     challenge.setStartTime(matchingSequence.getStartTime());
                     challenge.setEndTime(matchingSequence.getEndTime());
-                    results.add(modelMapper.map(challenge, ChallengeJobResponse.class));
-                    challengeRepository.save(challenge);
-                    updateJobStatus(challengeJobId, "COMPLETED", "NONE", null);
+                    ChallengeJobResponse response = modelMapper.map(challenge, ChallengeJobResponse.class);
+                    response.setConfidence(matchingSequence.getConfidence());
+                    results.add(response);
+                    matched.add(challenge);
                 } else {
-                    updateJobStatus(challengeJobId, "FAILED", null, "No match found for sentence: " + challenge.getFullSentence());
+                    unmatchedOrderIndexes.add(challenge.getOrderIndex());
                 }
             }
+            challengeRepository.batchUpdateTimings(matched);
+
+            if (unmatchedOrderIndexes.isEmpty()) {
+                updateJobStatus(challengeJobId, "COMPLETED", null);
+            } else {
+                String error = "No match found for sentences " + unmatchedOrderIndexes;
+                updateJobStatus(challengeJobId, matched.isEmpty() ? "FAILED" : "COMPLETED",
+                        error.length() > 255 ? error.substring(0, 252) + "..." : error);
+            }
             return new ResponseEntity<>(results, HttpStatus.OK);
         }
-        catch (JsonProcessingException e) {
-            updateJobStatus(challengeJobId, "FAILED", null, e.getMessage());
+        catch (IOException e) {
+            updateJobStatus(challengeJobId, "FAILED", e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing challenge job", e);
         }
 
     }
 
+    private TranscriptWords readTranscriptWords(ChallengeJob job) throws IOException {
+        TranscriptResult transcript;
+        if (job.getResponseData() != null) {
+            transcript = TranscriptCodec.decode(job.getResponseData());
+        } else if (job.getResponsePayload() != null) {
+            // jobs stored before the binary column: JSON AssemblyResponse
+            transcript = TranscriptJsonParser.parse(objectMapper.getFactory(),
+                    new ByteArrayInputStream(job.getResponsePayload().getBytes(StandardCharsets.UTF_8)));
+        } else {
+            throw new IOException("Challenge job " + job.getJobId() + " has no transcript");
+        }
+        return transcript.getWords() != null ? transcript.getWords() : new TranscriptWords(0);
+    }
+
 
 
-    private Map<String, SentenceWithTiming> findMatchingSequences(List<String> fullSentences, List<AssemblyWordInfoResponse> words) {
-        Map<String, SentenceWithTiming> results = new HashMap<>();
+    // one entry per sentence, null where it was not found
+    private SentenceWithTiming[] findMatchingSequences(List<String> fullSentences, TranscriptWords words) {
+        SentenceWithTiming[] results = new SentenceWithTiming[fullSentences.size()];
 
-        if (fullSentences == null || fullSentences.isEmpty() || words == null || words.isEmpty()) {
+        if (fullSentences.isEmpty() || words == null || words.size() == 0) {
             return results;
         }
 
-        boolean[] usedWords = new boolean[words.size()];
-
-        List<String> sortedSentences = fullSentences.stream()
-                .filter(sentence -> sentence != null && !sentence.trim().isEmpty())
-                .sorted((s1, s2) -> Integer.compare(normalizeAndSplit(s2).length, normalizeAndSplit(s1).length))
-                .collect(Collectors.toList());
-
-        for (String fullSentence : sortedSentences) {
-            SentenceWithTiming match = findMatchingSequence(fullSentence, words, usedWords);
-            if (match != null) {
-                results.put(fullSentence, match);
+        TranscriptAligner.Span[] spans = new TranscriptAligner(words).align(fullSentences,
+                new TranscriptAligner.Tolerance(alignmentMinBand, alignmentMaxCells, alignmentMinConfidence));
+        for (int i = 0; i < spans.length; i++) {
+            if (spans[i] != null) {
+                results[i] = toSentenceWithTiming(words, spans[i]);
             }
         }
-
         return results;
     }
 
-    private SentenceWithTiming findMatchingSequence(String fullSentence, List<AssemblyWordInfoResponse> words, boolean[] usedWords) {
-        if (fullSentence == null || fullSentence.trim().isEmpty() || words == null || words.isEmpty()) {
-            return null;
-        }
-
-        String[] targetWords = normalizeAndSplit(fullSentence);
-        if (targetWords.length == 0) {
-            return null;
-        }
-
-        for (int startIndex = 0; startIndex <= words.size() - targetWords.length; startIndex++) {
-            if (isRangeUsed(usedWords, startIndex, startIndex + targetWords.length - 1)) {
-                continue;
-            }
-
-            if (isSequenceMatch(words, startIndex, targetWords)) {
-                int endIndex = startIndex + targetWords.length - 1;
-
-                Double startTime = words.get(startIndex).getStart().doubleValue();
-                Double endTime = words.get(endIndex).getEnd().doubleValue();
-
-                List<AssemblyWordInfoResponse> matchedWords = words.subList(startIndex, endIndex + 1);
-
-                String matchedText = matchedWords.stream()
-                        .map(AssemblyWordInfoResponse::getText)
-                        .collect(Collectors.joining(" "));
-
-                markWordsAsUsed(usedWords, startIndex, endIndex);
-
-                return new SentenceWithTiming(matchedText, startTime, endTime, matchedWords);
+    private SentenceWithTiming toSentenceWithTiming(TranscriptWords words, TranscriptAligner.Span span) {
+        List<AssemblyWordInfoResponse> matchedWords = new ArrayList<>(span.end() - span.start() + 1);
+        StringBuilder matchedText = new StringBuilder();
+        for (int i = span.start(); i <= span.end(); i++) {
+            AssemblyWordInfoResponse word = new AssemblyWordInfoResponse();
+            word.setText(words.text(i));
+            word.setStart(words.start(i));
+            word.setEnd(words.end(i));
+            word.setConfidence((double) words.confidence(i));
+            matchedWords.add(word);
+            if (i > span.start()) {
+                matchedText.append(' ');
             }
+            matchedText.append(words.text(i));
         }
-
-        return null;
-    }
-    private String[] normalizeAndSplit(String text) {
-        return text.toLowerCase()
-                .replaceAll("[^a-zA-Z0-9\\s]", "")
-                .trim()
-                .split("\\s+");
+        return new SentenceWithTiming(matchedText.toString(), (double) words.start(span.start()),
+                (double) words.end(span.end()), matchedWords, span.confidence());
     }
-
-    private String normalizeWord(String word) {
-        return word.toLowerCase().replaceAll("[^a-zA-Z0-9]", "");
+    @Override
+    public ResponseEntity<List<AudioSegmentResponse>> segmentAudioForChallenges(Long lessonId) throws Exception {
+        return ResponseEntity.ok(segmentLessonAudio(lessonId, null));
     }
-    private boolean isSequenceMatch(List<AssemblyWordInfoResponse> words, int startIndex, String[] targetWords) {
-        if (startIndex + targetWords.length > words.size()) {
-            return false;
-        }
 
-        for (int i = 0; i < targetWords.length; i++) {
-            String transcriptWord = normalizeWord(words.get(startIndex + i).getText());
-            String targetWord = targetWords[i];
-
-            if (!transcriptWord.equals(targetWord)) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-    private boolean isRangeUsed(boolean[] usedWords, int startIndex, int endIndex) {
-        for (int i = startIndex; i <= endIndex && i < usedWords.length; i++) {
-            if (usedWords[i]) {
-                return true;
-            }
-        }
-        return false;
-    }
-    private void markWordsAsUsed(boolean[] usedWords, int startIndex, int endIndex) {
-        for (int i = startIndex; i <= endIndex && i < usedWords.length; i++) {
-            usedWords[i] = true;
-        }
-    }
-    private void updateJobStatus(String jobId, String status, String result, String error) {
-        Optional<ChallengeJob> jobOpt = challengeJobRepository.findByJobId(jobId);
-        if (jobOpt.isPresent()) {
-            ChallengeJob job = jobOpt.get();
-            if (!result.equals("NONE")){
-                job.setStatus(status);
-                job.setResponsePayload(result);
-                job.setErrorMessage(error);
-                challengeJobRepository.save(job);
-            }
-            job.setStatus(status);
-            job.setErrorMessage(error);
-            challengeJobRepository.save(job);
-        }
-        else
-        {
-            throw new ResourceNotFoundException("Challenge job not found with id: " + jobId);
-        }
-    }
     @Override
-    public ResponseEntity<List<AudioSegmentResponse>> segmentAudioForChallenges(Long lessonId) throws Exception {
+    public List<AudioSegmentResponse> segmentLessonAudio(Long lessonId,
+                                                         Consumer<AudioSegmentResponse> onSegmentDone) throws Exception {
         LessonEntity lesson = lessonRepository.findById(lessonId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson not found"));
         List<ChallengeEntity> challenges = challengeRepository.findByLesson_Id(lessonId);
         if (challenges.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No challenges found for lesson");
         }
-        List<AudioSegment> segments = challenges.stream()
-                .map(challenge -> AudioSegment.builder()
+        try (CachedAudio sourceAudio = audioCacheService.acquire(lesson.getAudioPath())) {
+            String audioHash = sourceAudio.getContentHash();
+            if (!audioHash.equals(lesson.getAudioHash())) {
+                lessonRepository.updateAudioHash(lessonId, audioHash);
+            }
+            String encodingProfile = audioProcessingService.getEncodingProfile();
+
+            // only challenges whose source, timing or encoding changed since their last cut are processed again
+            Map<Long, AudioSegmentResponse> unchanged = new HashMap<>();
+            Map<Long, String> fingerprints = new HashMap<>();
+            List<AudioSegment> segments = new ArrayList<>();
+            for (ChallengeEntity challenge : challenges) {
+                String fingerprint = segmentFingerprint(audioHash, challenge, encodingProfile);
+                if (fingerprint.equals(challenge.getSegmentFingerprint()) && challenge.getAudioSegmentUrl() != null) {
+                    AudioSegmentResponse response = AudioSegmentResponse.builder()
+                            .challengeId(challenge.getId())
+                            .orderIndex(challenge.getOrderIndex())
+                            .fullSentence(challenge.getFullSentence())
+                            .audioUrl(challenge.getAudioSegmentUrl())
+                            .startTime(challenge.getStartTime())
+                            .endTime(challenge.getEndTime())
+                            .status("UNCHANGED")
+                            .build();
+                    unchanged.put(challenge.getId(), response);
+                    if (onSegmentDone != null) {
+                        onSegmentDone.accept(response);
+                    }
+                    continue;
+                }
+                fingerprints.put(challenge.getId(), fingerprint);
+                segments.add(AudioSegment.builder()
                         .challengeId(challenge.getId())
                         .lessonId(lessonId)
                         .orderIndex(challenge.getOrderIndex())
@@ -419,23 +392,66 @@ public class ChallengeServiceImpl implements ChallengeService {
                         .startTime(challenge.getStartTime())
                         .endTime(challenge.getEndTime())
                         .fileName(generateFileName(challenge))
-                        .build())
-                .collect(Collectors.toList());
-        List<AudioSegmentResponse> responses = audioProcessingService.segmentAudio(
-                lesson.getAudioPath(), segments
-        );
-        for (AudioSegmentResponse response : responses) {
-            if ("SUCCESS".equals(response.getStatus())) {
-                ChallengeEntity challenge = challengeRepository.findById(response.getChallengeId())
-                        .orElse(null);
-                if (challenge != null) {
+                        .build());
+            }
+
+            // nothing to cut: no probe, no segmentation, no writes
+            List<AudioSegmentResponse> segmented = segments.isEmpty() ? List.of()
+                    : audioProcessingService.segmentAudio(
+                            lesson.getAudioPath(), resolveAudioSourceInfo(lesson), segments,
+                            null, onSegmentDone
+                    );
+            Map<Long, ChallengeEntity> challengesById = challenges.stream()
+                    .collect(Collectors.toMap(ChallengeEntity::getId, challenge -> challenge));
+            Map<Long, AudioSegmentResponse> byChallenge = new HashMap<>(unchanged);
+            List<ChallengeEntity> cut = new ArrayList<>();
+            for (AudioSegmentResponse response : segmented) {
+                byChallenge.put(response.getChallengeId(), response);
+                if ("SUCCESS".equals(response.getStatus())) {
+                    ChallengeEntity challenge = challengesById.get(response.getChallengeId());
                     challenge.setAudioSegmentUrl(response.getAudioUrl());
-                    challengeRepository.save(challenge);
+                    challenge.setSegmentFingerprint(fingerprints.get(challenge.getId()));
+                    cut.add(challenge);
                 }
             }
+            if (!cut.isEmpty()) {
+                challengeRepository.batchUpdateSegments(cut);
+            }
+            return challenges.stream()
+                    .map(challenge -> byChallenge.get(challenge.getId()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private String segmentFingerprint(String audioHash, ChallengeEntity challenge, String encodingProfile) {
+        String source = audioHash + "|" + challenge.getStartTime() + "|" + challenge.getEndTime() + "|" + encodingProfile;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return ResponseEntity.ok(responses);
     }
+    private AudioSourceInfo resolveAudioSourceInfo(LessonEntity lesson) {
+        if (lesson.getAudioCodec() != null) {
+            return AudioSourceInfo.builder()
+                    .codec(lesson.getAudioCodec())
+                    .sampleRate(lesson.getAudioSampleRate())
+                    .bitRate(lesson.getAudioBitRate())
+                    .build();
+        }
+        try {
+            AudioSourceInfo sourceInfo = audioProcessingService.probeAudio(lesson.getAudioPath());
+            lessonRepository.updateAudioInfo(lesson.getId(), sourceInfo.getCodec(),
+                    sourceInfo.getSampleRate(), sourceInfo.getBitRate());
+            return sourceInfo;
+        } catch (Exception e) {
+            // without probe data every clip is simply transcoded
+            log.warn("Could not probe audio of lesson {}: {}", lesson.getId(), e.getMessage());
+            return null;
+        }
+    }
+
     private String generateFileName(ChallengeEntity challenge) {
         return String.format("challenge_%d_%s",
                 challenge.getId(),
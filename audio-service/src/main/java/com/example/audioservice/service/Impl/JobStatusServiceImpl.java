@@ -0,0 +1,177 @@
+package com.example.audioservice.service.Impl;
+
+import com.example.audioservice.model.DTO.JobStatusEvent;
+import com.example.audioservice.service.JobStatusService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Waiting clients are plain entries in an in-memory map and cost nothing until their job changes. Changes go through
+ * the {@code job-status-events} topic, which every instance reads with its own consumer group, so a client is
+ * notified no matter which instance moved the job.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class JobStatusServiceImpl implements JobStatusService {
+    private static final String JOB_STATUS_TOPIC = "job-status-events";
+    private static final Set<String> FINAL_STATUSES = Set.of("COMPLETED", "ERROR", "FAILED");
+    private static final long MIN_WAIT_MS = 1000;
+
+    @Value("${job-status.sse-timeout-ms:600000}")
+    private long sseTimeoutMs;
+    @Value("${job-status.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor jobStatusDispatchExecutor;
+
+    private final Map<String, Set<Runnable>> watchers = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String jobType, String jobId, String status, String error) {
+        JobStatusEvent event = new JobStatusEvent(jobType, jobId, status, error);
+        try {
+            kafkaTemplate.send(JOB_STATUS_TOPIC, jobId, objectMapper.writeValueAsString(event))
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.warn("Job status event for {} {} not sent: {}", jobType, jobId, ex.getMessage());
+                            dispatch(event);
+                        }
+                    });
+        } catch (Exception e) {
+            // at least the clients connected to this instance still hear about it
+            log.warn("Job status event for {} {} not sent: {}", jobType, jobId, e.getMessage());
+            dispatch(event);
+        }
+    }
+
+    @KafkaListener(topics = JOB_STATUS_TOPIC, groupId = "job-status-#{T(java.util.UUID).randomUUID()}",
+            containerFactory = "broadcastKafkaListenerContainerFactory")
+    public void onJobStatusEvent(String message) {
+        try {
+            dispatch(objectMapper.readValue(message, JobStatusEvent.class));
+        } catch (Exception e) {
+            log.warn("Dropping unreadable job status event: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public <T> SseEmitter stream(String jobType, String jobId, Supplier<T> snapshot, Function<T, String> statusOf) {
+        String key = key(jobType, jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Runnable watcher = () -> {
+            try {
+                T current = snapshot.get();
+                emitter.send(current);
+                if (isFinal(statusOf.apply(current))) {
+                    emitter.complete();
+                }
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        };
+        // registered before the first snapshot so a change in between is not lost
+        register(key, watcher);
+        emitter.onCompletion(() -> unregister(key, watcher));
+        emitter.onError(ex -> unregister(key, watcher));
+        try {
+            T current = snapshot.get();
+            emitter.send(current);
+            if (isFinal(statusOf.apply(current))) {
+                emitter.complete();
+            }
+        } catch (IOException e) {
+            unregister(key, watcher);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            unregister(key, watcher);
+            throw e;
+        }
+        return emitter;
+    }
+
+    @Override
+    public <T> DeferredResult<T> awaitChange(String jobType, String jobId, String knownStatus, long timeoutMs,
+                                             Supplier<T> snapshot, Function<T, String> statusOf) {
+        String key = key(jobType, jobId);
+        DeferredResult<T> result = new DeferredResult<>(Math.max(MIN_WAIT_MS, Math.min(timeoutMs, maxWaitMs)));
+        Runnable watcher = () -> {
+            try {
+                T current = snapshot.get();
+                if (!Objects.equals(knownStatus, statusOf.apply(current))) {
+                    result.setResult(current);
+                }
+            } catch (Exception e) {
+                result.setErrorResult(e);
+            }
+        };
+        register(key, watcher);
+        result.onCompletion(() -> unregister(key, watcher));
+        result.onTimeout(() -> {
+            try {
+                result.setResult(snapshot.get());
+            } catch (Exception e) {
+                result.setErrorResult(e);
+            }
+        });
+        try {
+            T current = snapshot.get();
+            String status = statusOf.apply(current);
+            if (knownStatus == null || !knownStatus.equals(status) || isFinal(status)) {
+                result.setResult(current);
+            }
+        } catch (RuntimeException e) {
+            unregister(key, watcher);
+            throw e;
+        }
+        return result;
+    }
+
+    private void dispatch(JobStatusEvent event) {
+        Set<Runnable> waiting = watchers.get(key(event.getJobType(), event.getJobId()));
+        if (waiting == null || waiting.isEmpty()) {
+            return;
+        }
+        for (Runnable watcher : waiting) {
+            jobStatusDispatchExecutor.execute(watcher);
+        }
+    }
+
+    private void register(String key, Runnable watcher) {
+        watchers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(watcher);
+    }
+
+    private void unregister(String key, Runnable watcher) {
+        watchers.computeIfPresent(key, (k, set) -> {
+            set.remove(watcher);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static boolean isFinal(String status) {
+        return status != null && FINAL_STATUSES.contains(status);
+    }
+
+    private static String key(String jobType, String jobId) {
+        return jobType + ":" + jobId;
+    }
+}
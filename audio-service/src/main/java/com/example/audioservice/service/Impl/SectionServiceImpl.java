@@ -2,11 +2,13 @@ package com.example.audioservice.service.Impl;
 
 import com.example.audioservice.entity.SectionEntity;
 import com.example.audioservice.entity.TopicEntity;
+import com.example.audioservice.model.DTO.CatalogSnapshot;
 import com.example.audioservice.model.Request.SectionFilter;
 import com.example.audioservice.model.Request.SectionRequest;
 import com.example.audioservice.model.Response.SectionResponse;
 import com.example.audioservice.repository.SectionRepository;
 import com.example.audioservice.repository.TopicRepository;
+import com.example.audioservice.service.CatalogService;
 import com.example.audioservice.service.SectionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +33,7 @@ public class SectionServiceImpl implements SectionService {
     private final TopicRepository topicRepository;
     private final ModelMapper modelMapper;
     private final RestTemplate restTemplate;
+    private final CatalogService catalogService;
 
     @Override
     public ResponseEntity<SectionResponse> addSection(SectionRequest sectionRequest) {
@@ -41,38 +44,32 @@ public class SectionServiceImpl implements SectionService {
                 .level(sectionRequest.getLevel())
                 .topicEntity(topicEntity).build();
         sectionRepository.save(sectionEntity);
+        catalogService.invalidate();
         return new ResponseEntity<>(modelMapper.map(sectionEntity, SectionResponse.class), HttpStatus.CREATED);
     }
 
     @Override
-    public ResponseEntity<List<SectionResponse>> getAllSections(Long topicId) {
-        TopicEntity topicEntity = topicRepository.findById(topicId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,"Topic Not Found"));
-        if(!topicEntity.getPremiumTopic().equals(1)) {
-            List<SectionEntity> sections = sectionRepository.findAllByTopicEntity(topicEntity);
-            List<SectionResponse> sectionResponses = sections.stream()
-                    .map(sectionEntity -> modelMapper.map(sectionEntity, SectionResponse.class))
-                    .collect(Collectors.toList());
-            return new ResponseEntity<>(sectionResponses, HttpStatus.OK);
-        }
-        else {
+    public ResponseEntity<byte[]> getAllSections(Long topicId) {
+        CatalogSnapshot catalog = catalogService.current();
+        if (premiumTopic(catalog, topicId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "This topic is premium, please subscribe to access it.");
         }
+        return catalog.sectionsByTopic().get(topicId).toResponse();
     }
     @Override
-    public ResponseEntity<List<SectionResponse>> getAllPremiumSections(Long topicId, String username) {
-        TopicEntity topicEntity = topicRepository.findById(topicId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,"Topic Not Found"));
-        if(topicEntity.getPremiumTopic().equals(1)&& getUserPremiumStatus(username).getBody() == 1) {
-            List<SectionEntity> sections = sectionRepository.findAllByTopicEntity_Id(topicId);
-            List<SectionResponse> sectionResponses = sections.stream()
-                    .map(sectionEntity -> modelMapper.map(sectionEntity, SectionResponse.class))
-                    .collect(Collectors.toList());
-            return new ResponseEntity<>(sectionResponses, HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllPremiumSections(Long topicId, String username) {
+        CatalogSnapshot catalog = catalogService.current();
+        if (premiumTopic(catalog, topicId) && getUserPremiumStatus(username).getBody() != 1) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "This topic is premium, please subscribe to access it.");
         }
-        else {
-            return getAllSections(topicId);
+        return catalog.sectionsByTopic().get(topicId).toResponse();
+    }
+    private boolean premiumTopic(CatalogSnapshot catalog, Long topicId) {
+        Boolean premium = catalog.premiumByTopic().get(topicId);
+        if (premium == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,"Topic Not Found");
         }
+        return premium;
     }
     private ResponseEntity<Integer> getUserPremiumStatus (String username) {
         String url = "http://user-service/api/users/premium-status/" + username;
@@ -0,0 +1,229 @@
+package com.example.audioservice.service.Impl;
+
+import com.example.audioservice.entity.SegmentationJob;
+import com.example.audioservice.model.DTO.SegmentationMessage;
+import com.example.audioservice.model.Response.AudioSegmentResponse;
+import com.example.audioservice.model.Response.SegmentationJobResponse;
+import com.example.audioservice.repository.ChallengeRepository;
+import com.example.audioservice.repository.LessonRepository;
+import com.example.audioservice.repository.SegmentationJobRepository;
+import com.example.audioservice.service.ChallengeService;
+import com.example.audioservice.service.JobStatusService;
+import com.example.audioservice.service.SegmentationJobService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SegmentationJobServiceImpl implements SegmentationJobService {
+    private static final String SEGMENTATION_TOPIC = "segmentation-requests";
+    private static final List<String> ACTIVE_STATUSES = List.of("PENDING", "PROCESSING");
+    private static final long PROGRESS_FLUSH_INTERVAL_MS = 1000;
+
+    @Value("${audio.segment.job.stale-minutes:15}")
+    private long staleMinutes;
+    @Value("${audio.segment.job.timeout-minutes:180}")
+    private long timeoutMinutes;
+
+    private final SegmentationJobRepository jobRepository;
+    private final LessonRepository lessonRepository;
+    private final ChallengeRepository challengeRepository;
+    private final ChallengeService challengeService;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final JobStatusService jobStatusService;
+
+    @Override
+    public SegmentationJobResponse submitSegmentationJob(Long lessonId) {
+        if (!lessonRepository.existsById(lessonId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson not found");
+        }
+        Optional<SegmentationJob> active = findActiveJob(lessonId);
+        if (active.isPresent()) {
+            return toResponse(active.get());
+        }
+
+        SegmentationJob job = SegmentationJob.builder()
+                .jobId(UUID.randomUUID().toString())
+                .lessonId(lessonId)
+                .status("PENDING")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        try {
+            jobRepository.saveAndFlush(job);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent submit won: at most one active job per lesson is enforced by a partial unique index
+            return findActiveJob(lessonId)
+                    .map(this::toResponse)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Segmentation job for lesson " + lessonId + " changed concurrently, retry"));
+        }
+
+        String jobId = job.getJobId();
+        try {
+            send(jobId, lessonId);
+        } catch (Exception e) {
+            finish(jobId, "ERROR", null, "Failed to submit job: " + e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to submit segmentation job");
+        }
+        return toResponse(job);
+    }
+
+    /**
+     * Jobs whose worker died stay PROCESSING with no progress. Once they have not moved for the stale period they
+     * are queued again, or failed when they are older than the timeout.
+     */
+    @Scheduled(fixedDelayString = "${audio.segment.job.reclaim-interval-ms:60000}",
+            initialDelayString = "${audio.segment.job.reclaim-interval-ms:60000}")
+    public void reclaimStaleJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minusMinutes(staleMinutes);
+        for (SegmentationJob job : jobRepository.findByStatusAndUpdatedAtBefore("PROCESSING", staleBefore)) {
+            String jobId = job.getJobId();
+            if (job.getCreatedAt().isBefore(now.minusMinutes(timeoutMinutes))) {
+                finish(jobId, "ERROR", null, "Segmentation timeout after " + timeoutMinutes + " minutes");
+                continue;
+            }
+            if (jobRepository.requeue(jobId, now, staleBefore) == 0) {
+                continue;
+            }
+            log.warn("Segmentation job {} for lesson {} made no progress for {} minutes, queueing it again",
+                    jobId, job.getLessonId(), staleMinutes);
+            jobStatusService.publish(JobStatusService.SEGMENTATION, jobId, "PENDING", null);
+            try {
+                send(jobId, job.getLessonId());
+            } catch (Exception e) {
+                finish(jobId, "ERROR", null, "Failed to requeue job: " + e.getMessage());
+            }
+        }
+    }
+
+    private Optional<SegmentationJob> findActiveJob(Long lessonId) {
+        return jobRepository.findFirstByLessonIdAndStatusInOrderByCreatedAtDesc(lessonId, ACTIVE_STATUSES);
+    }
+
+    private void send(String jobId, Long lessonId) throws JsonProcessingException {
+        // keyed by lesson: all jobs of one lesson land on the same partition and run one after another
+        kafkaTemplate.send(SEGMENTATION_TOPIC, String.valueOf(lessonId),
+                        objectMapper.writeValueAsString(new SegmentationMessage(jobId, lessonId)))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        finish(jobId, "ERROR", null, "Failed to send message to Kafka: " + ex.getMessage());
+                    }
+                });
+    }
+
+    @Override
+    public SegmentationJobResponse getJobStatus(String jobId) {
+        return jobRepository.findByJobId(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Segmentation job not found with id: " + jobId));
+    }
+
+    @KafkaListener(topics = SEGMENTATION_TOPIC, groupId = "segmentation-group",
+            containerFactory = "segmentationKafkaListenerContainerFactory")
+    public void processSegmentationRequest(String message) {
+        SegmentationMessage request;
+        try {
+            request = objectMapper.readValue(message, SegmentationMessage.class);
+        } catch (JsonProcessingException e) {
+            log.error("Dropping unreadable segmentation message: {}", e.getMessage());
+            return;
+        }
+        String jobId = request.getJobId();
+        int total = (int) challengeRepository.countByLesson_Id(request.getLessonId());
+        LocalDateTime now = LocalDateTime.now();
+        if (jobRepository.claim(jobId, total, now, now.minusMinutes(staleMinutes)) == 0) {
+            return;
+        }
+        jobStatusService.publish(JobStatusService.SEGMENTATION, jobId, "PROCESSING", null);
+
+        Progress progress = new Progress(jobId);
+        try {
+            List<AudioSegmentResponse> segments = challengeService.segmentLessonAudio(request.getLessonId(),
+                    progress::record);
+            progress.flush();
+            finish(jobId, "COMPLETED", objectMapper.writeValueAsString(segments), null);
+        } catch (Exception e) {
+            log.error("Segmentation job {} for lesson {} failed: {}", jobId, request.getLessonId(), e.getMessage());
+            progress.flush();
+            finish(jobId, "ERROR", null, e.getMessage());
+        }
+    }
+
+    private void finish(String jobId, String status, String result, String error) {
+        jobRepository.finish(jobId, status, result, error, LocalDateTime.now());
+        jobStatusService.publish(JobStatusService.SEGMENTATION, jobId, status, error);
+    }
+
+    private SegmentationJobResponse toResponse(SegmentationJob job) {
+        List<AudioSegmentResponse> segments = null;
+        if (job.getResult() != null) {
+            try {
+                segments = objectMapper.readValue(job.getResult(), new TypeReference<>() {});
+            } catch (JsonProcessingException e) {
+                log.warn("Unreadable result for segmentation job {}: {}", job.getJobId(), e.getMessage());
+            }
+        }
+        return SegmentationJobResponse.builder()
+                .jobId(job.getJobId())
+                .lessonId(job.getLessonId())
+                .status(job.getStatus())
+                .totalSegments(job.getTotalSegments())
+                .completedSegments(job.getCompletedSegments())
+                .failedSegments(job.getFailedSegments())
+                .error(job.getError())
+                .segments(segments)
+                .build();
+    }
+
+    /**
+     * Counts finished clips from the worker threads and writes them to the job row at most once per interval.
+     */
+    private final class Progress {
+        private final String jobId;
+        private int completed;
+        private int failed;
+        private long lastFlush;
+
+        private Progress(String jobId) {
+            this.jobId = jobId;
+        }
+
+        private synchronized void record(AudioSegmentResponse response) {
+            if ("ERROR".equals(response.getStatus())) {
+                failed++;
+            } else {
+                completed++;
+            }
+            if (System.currentTimeMillis() - lastFlush >= PROGRESS_FLUSH_INTERVAL_MS) {
+                flush();
+            }
+        }
+
+        private synchronized void flush() {
+            jobRepository.updateProgress(jobId, completed, failed, LocalDateTime.now());
+            jobStatusService.publish(JobStatusService.SEGMENTATION, jobId, "PROCESSING", null);
+            lastFlush = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.audioservice.service.Impl;
+
+import com.example.audioservice.service.StorageService;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.firebase.cloud.StorageClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Service
+@Slf4j
+public class StorageServiceImpl implements StorageService {
+    // resumable uploads send whole chunks, which must be a multiple of 256 KiB
+    private static final int CHUNK_UNIT = 256 * 1024;
+
+    @Value("${fireBase_BUCKETNAME}")
+    private String bucketName;
+
+    @Value("${storage.upload.chunk-size-kb:1024}")
+    private int chunkSizeKb;
+
+    @Override
+    public String upload(String objectName, String contentType, String contentDisposition,
+                         InputStream content) throws IOException {
+        Storage storage = StorageClient.getInstance().bucket().getStorage();
+        BlobInfo.Builder blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, objectName))
+                .setContentType(contentType);
+        if (contentDisposition != null) {
+            blobInfo.setContentDisposition(contentDisposition);
+        }
+        // heap use per upload is one chunk buffer, whatever the file size; failed chunks are retried by the writer
+        storage.createFrom(blobInfo.build(), content, chunkSize());
+
+        String encodedFileName = URLEncoder.encode(objectName, StandardCharsets.UTF_8);
+        return String.format(
+                "https://firebasestorage.googleapis.com/v0/b/%s/o/%s?alt=media",
+                bucketName,
+                encodedFileName
+        );
+    }
+
+    @Override
+    public String upload(String objectName, String contentType, String contentDisposition,
+                         Path file) throws IOException {
+        try (InputStream content = Files.newInputStream(file)) {
+            return upload(objectName, contentType, contentDisposition, content);
+        }
+    }
+
+    private int chunkSize() {
+        int bytes = chunkSizeKb * 1024;
+        return Math.max(CHUNK_UNIT, bytes - bytes % CHUNK_UNIT);
+    }
+}
@@ -6,16 +6,13 @@ import com.example.audioservice.model.Request.TopicRequest;
 import com.example.audioservice.model.Response.TopicResponse;
 import com.example.audioservice.repository.CategoryRepository;
 import com.example.audioservice.repository.TopicRepository;
+import com.example.audioservice.service.CatalogService;
+import com.example.audioservice.service.StorageService;
 import com.example.audioservice.service.TopicService;
-import com.google.cloud.storage.BlobId;
-import com.google.cloud.storage.BlobInfo;
-import com.google.cloud.storage.Storage;
-import com.google.firebase.cloud.StorageClient;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -24,11 +21,8 @@ import org.springframework.web.client.RestClient;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.io.InputStream;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import static java.util.stream.Stream.builder;
 
@@ -39,15 +33,12 @@ public class TopicServiceImpl implements TopicService {
     private final TopicRepository topicRepository;
     private final ModelMapper modelMapper;
     private final CategoryRepository categoryRepository;
-
-    @Value("${fireBase_BUCKETNAME}")
-    private String BucketName;
+    private final StorageService storageService;
+    private final CatalogService catalogService;
 
     @Override
-    public ResponseEntity<List<TopicResponse>> getAllTopics() {
-        List<TopicEntity> topicEntities = topicRepository.findAll();
-        List<TopicResponse> topicResponses = topicEntities.stream().map(t->modelMapper.map(t, TopicResponse.class)).collect(Collectors.toList());
-        return new ResponseEntity<>(topicResponses, HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllTopics() {
+        return catalogService.current().topics().toResponse();
     }
 
     @Override
@@ -62,6 +53,7 @@ public class TopicServiceImpl implements TopicService {
                     .premiumTopic(topicRequest.getPremiumTopic())
                     .image(topicRequest.getImage()).build();
             topicRepository.save(topicEntity);
+            catalogService.invalidate();
             return new ResponseEntity<>(modelMapper.map(topicEntity, TopicResponse.class), HttpStatus.CREATED);
     }
 
@@ -74,22 +66,9 @@ public class TopicServiceImpl implements TopicService {
         if (contentType == null|| !contentType.startsWith("image/")) {
             return ResponseEntity.badRequest().body("File is not an image");
         }
-        try {
-            String bucketName = BucketName;
-            String filename ="TopicImage/"+ UUID.randomUUID() + "_" + StringUtils.cleanPath(file.getOriginalFilename());
-            Storage storage = StorageClient.getInstance().bucket().getStorage();
-
-            BlobId blobId = BlobId.of(bucketName, filename);
-            BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
-                    .setContentType(file.getContentType())
-                    .build();
-            storage.create(blobInfo, file.getBytes());
-            String encodedFileName = URLEncoder.encode(filename, StandardCharsets.UTF_8);
-            String imageUrl  = String.format(
-                    "https://firebasestorage.googleapis.com/v0/b/%s/o/%s?alt=media",
-                    bucketName,
-                    encodedFileName
-            );
+        String filename ="TopicImage/"+ UUID.randomUUID() + "_" + StringUtils.cleanPath(file.getOriginalFilename());
+        try (InputStream content = file.getInputStream()) {
+            String imageUrl = storageService.upload(filename, contentType, null, content);
             return ResponseEntity.ok(imageUrl);
         }
         catch (Exception e) {
@@ -0,0 +1,194 @@
+package com.example.audioservice.service.Impl;
+
+import com.example.audioservice.model.DTO.TranscriptResult;
+import com.example.audioservice.service.TranscriptPollingService;
+import com.example.audioservice.utils.TranscriptJsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Polls every in-flight transcript from one dispatcher thread: due transcripts come out of a delay queue,
+ * are fetched with {@code sendAsync} and go back into the queue with a jittered exponential backoff.
+ * The HTTP client delivers bodies on its own threads; parsing and the completion callbacks, which write to the
+ * database and Kafka, run on the separate callback pool, so they can never hold up the client.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TranscriptPollingServiceImpl implements TranscriptPollingService {
+    @Value("${assemblyAI_API_KEY}")
+    private String API_KEY;
+    @Value("${assemblyAI_TRANSCRIPT_URL}")
+    private String TRANSCRIPT_URL;
+
+    @Value("${transcript.poll.initial-delay-ms:2000}")
+    private long initialDelayMs;
+    @Value("${transcript.poll.max-delay-ms:30000}")
+    private long maxDelayMs;
+    @Value("${transcript.poll.max-wait-minutes:60}")
+    private long maxWaitMinutes;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor transcriptPollCallbackExecutor;
+
+    private final DelayQueue<PollTask> queue = new DelayQueue<>();
+    private final Map<String, PollTask> tracked = new ConcurrentHashMap<>();
+    private HttpClient client;
+    private Thread dispatcher;
+
+    @PostConstruct
+    public void start() {
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        dispatcher = new Thread(this::dispatch, "transcript-poller");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.interrupt();
+    }
+
+    @Override
+    public void track(String transcriptId, Consumer<TranscriptResult> onDone, Consumer<String> onFailed) {
+        long now = System.nanoTime();
+        PollTask task = new PollTask(transcriptId, onDone, onFailed,
+                now + TimeUnit.MINUTES.toNanos(maxWaitMinutes));
+        if (tracked.putIfAbsent(transcriptId, task) != null) {
+            return;
+        }
+        task.dueAt = now + TimeUnit.MILLISECONDS.toNanos(initialDelayMs);
+        queue.put(task);
+    }
+
+    @Override
+    public boolean isTracking(String transcriptId) {
+        return tracked.containsKey(transcriptId);
+    }
+
+    @Override
+    public int getTrackedCount() {
+        return tracked.size();
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            PollTask task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (System.nanoTime() > task.deadline) {
+                finish(task);
+                task.onFailed.accept("Transcription timeout after " + maxWaitMinutes + " minutes");
+                continue;
+            }
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(TRANSCRIPT_URL + "/" + task.transcriptId))
+                    .header("Authorization", API_KEY)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            // the body is buffered without blocking, then handed to the callback pool
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenCompleteAsync((response, ex) -> onResponse(task, response, ex), transcriptPollCallbackExecutor);
+        }
+    }
+
+    private void onResponse(PollTask task, HttpResponse<byte[]> response, Throwable ex) {
+        if (ex != null) {
+            reschedule(task);
+            return;
+        }
+        try (InputStream body = new ByteArrayInputStream(response.body())) {
+            if (response.statusCode() == 429 || response.statusCode() >= 500) {
+                // transient: try again later
+                reschedule(task);
+                return;
+            }
+            if (response.statusCode() != 200) {
+                finish(task);
+                task.onFailed.accept("Error getting transcript: "
+                        + new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                return;
+            }
+            TranscriptResult result = TranscriptJsonParser.parse(objectMapper.getFactory(), body);
+            if ("completed".equals(result.getStatus()) || "error".equals(result.getStatus())) {
+                finish(task);
+                task.onDone.accept(result);
+                return;
+            }
+            reschedule(task);
+        } catch (Exception e) {
+            log.warn("Handling poll result of transcript {} failed: {}", task.transcriptId, e.getMessage());
+            reschedule(task);
+        }
+    }
+
+    private void reschedule(PollTask task) {
+        if (!tracked.containsKey(task.transcriptId)) {
+            return;
+        }
+        task.attempt++;
+        long backoff = Math.min(maxDelayMs, initialDelayMs << Math.min(task.attempt, 20));
+        // equal jitter: somewhere between half and all of the backoff, so transcripts submitted together drift apart
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        task.dueAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+        queue.put(task);
+    }
+
+    private void finish(PollTask task) {
+        tracked.remove(task.transcriptId, task);
+    }
+
+    private static final class PollTask implements Delayed {
+        private final String transcriptId;
+        private final Consumer<TranscriptResult> onDone;
+        private final Consumer<String> onFailed;
+        private final long deadline;
+        private volatile long dueAt;
+        private int attempt;
+
+        private PollTask(String transcriptId, Consumer<TranscriptResult> onDone, Consumer<String> onFailed, long deadline) {
+            this.transcriptId = transcriptId;
+            this.onDone = onDone;
+            this.onFailed = onFailed;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((PollTask) other).dueAt);
+        }
+    }
+}
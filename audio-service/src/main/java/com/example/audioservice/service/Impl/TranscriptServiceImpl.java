@@ -1,43 +1,61 @@
 package com.example.audioservice.service.Impl;
 
 import com.example.audioservice.entity.ChallengeJob;
+import com.example.audioservice.entity.TranscriptCacheEntry;
 import com.example.audioservice.entity.TranscriptJob;
+import com.example.audioservice.model.DTO.CachedAudio;
 import com.example.audioservice.model.DTO.TranscriptMessage;
+import com.example.audioservice.model.DTO.TranscriptResult;
 import com.example.audioservice.model.Request.TranscriptRequest;
-import com.example.audioservice.model.Response.AssemblyResponse;
-import com.example.audioservice.model.Response.AssemblyWordInfoResponse;
+import com.example.audioservice.model.Request.TranscriptWebhookRequest;
 import com.example.audioservice.model.Response.ProgressResponse;
 import com.example.audioservice.model.Response.TranscriptJobResponse;
 import com.example.audioservice.repository.ChallengeJobRepository;
+import com.example.audioservice.repository.LessonRepository;
+import com.example.audioservice.repository.TranscriptCacheRepository;
 import com.example.audioservice.repository.TranscriptJobRepository;
+import com.example.audioservice.service.AudioCacheService;
+import com.example.audioservice.service.JobStatusService;
+import com.example.audioservice.service.TranscriptPollingService;
 import com.example.audioservice.service.TranscriptService;
+import com.example.audioservice.utils.TranscriptCodec;
+import com.example.audioservice.utils.TranscriptJsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.errors.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class TranscriptServiceImpl implements TranscriptService {
     @Value("${assemblyAI_API_KEY}")
@@ -45,13 +63,40 @@ public class TranscriptServiceImpl implements TranscriptService {
     @Value("${assemblyAI_TRANSCRIPT_URL}")
     private String TRANSCRIPT_URL;
 
+    @Value("${assemblyAI_WEBHOOK_URL:}")
+    private String webhookUrl;
+    @Value("${assemblyAI_WEBHOOK_SECRET:}")
+    private String webhookSecret;
+    @Value("${transcript.reconcile.interval-ms:60000}")
+    private long reconcileIntervalMs;
+    @Value("${transcript.reconcile.timeout-minutes:60}")
+    private long reconcileTimeoutMinutes;
+    @Value("${transcript.submit.stale-minutes:10}")
+    private long submitStaleMinutes;
+
+    private static final long FINALIZATION_STALE_MINUTES = 10;
+    private static final List<String> PENDING = List.of("PENDING");
+    private static final List<String> PROCESSING = List.of("PROCESSING");
+    private static final List<String> FINALIZING = List.of("FINALIZING");
+    private static final List<String> IN_FLIGHT = List.of("PROCESSING", "FINALIZING");
+    private static final List<String> ACTIVE = List.of("PENDING", "PROCESSING", "FINALIZING");
+
     private String transcriptRequestTopic = "transcript-requests";
     private static final HttpClient client = HttpClient.newHttpClient();
 
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> binaryKafkaTemplate;
     private final TranscriptJobRepository jobRepository;
     private final ChallengeJobRepository challengeJobRepository;
     private final RestTemplate restTemplate;
+    private final TranscriptPollingService transcriptPollingService;
+    private final ObjectMapper objectMapper;
+    private final TranscriptCacheRepository transcriptCacheRepository;
+    private final LessonRepository lessonRepository;
+    private final AudioCacheService audioCacheService;
+    private final JobStatusService jobStatusService;
+    private final ThreadPoolTaskExecutor transcriptSubmitExecutor;
+    private volatile String cachedOptionsHash;
 
     @Override
     public List<String> submitTranscriptJob(TranscriptRequest transcriptRequest) {
@@ -73,18 +118,17 @@ public class TranscriptServiceImpl implements TranscriptService {
             kafkaTemplate.send(transcriptRequestTopic, transcriptJobId, objectToJson(message))
                     .whenComplete((result, ex) -> {
                         if (ex != null) {
-                            updateJobStatus(transcriptJobId, "ERROR", null, "Failed to send message to Kafka: " + ex.getMessage());
+                            transition(transcriptJobId, PENDING, "ERROR", null, "Failed to send message to Kafka: " + ex.getMessage());
                         }
                     });
         } catch (Exception e) {
-            updateJobStatus(transcriptJobId, "ERROR", null, "Failed to submit job: " + e.getMessage());
+            transition(transcriptJobId, PENDING, "ERROR", null, "Failed to submit job: " + e.getMessage());
             throw new RuntimeException("Failed to submit transcript job", e);
         }
         return results;
     }
     private String objectToJson(Object object) {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
             return objectMapper.writeValueAsString(object);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("JSON conversion failed for object: " + object, e);
@@ -115,80 +159,264 @@ public class TranscriptServiceImpl implements TranscriptService {
     @KafkaListener(topics = "transcript-requests", groupId = "transcript-group", containerFactory = "kafkaListenerContainerFactory")
     public void processTranscriptRequest(String message, @Header("kafka_receivedMessageKey") String jobId) {
         try {
-            Optional<TranscriptJob> jobOpt = jobRepository.findByJobId(jobId);
-            if (!jobOpt.isPresent()) {
+            TranscriptMessage transcriptMessage = jsonToObject(message, TranscriptMessage.class);
+            String challengeJobId = transcriptMessage.getChallengeJobId();
+            // redelivered or unknown jobs fail the claim; no read-then-write window for a second consumer
+            if (jobRepository.claim(jobId, challengeJobId, LocalDateTime.now()) == 0) {
                 return;
             }
-            TranscriptJob job = jobOpt.get();
-            if (!"PENDING".equals(job.getStatus())) {
+            jobStatusService.publish(JobStatusService.TRANSCRIPT, jobId, "PROCESSING", null);
+            // hashing may download the whole lesson audio, so everything after the claim leaves the listener thread
+            transcriptSubmitExecutor.execute(() -> submitClaimed(jobId, transcriptMessage.getAudioUrl(), challengeJobId));
+        } catch (Exception e) {
+            transition(jobId, ACTIVE, "ERROR", null, e.getMessage());
+            log.error("Error processing transcript request for jobId: {}, error: {}", jobId, e.getMessage());
+        }
+    }
+
+    private void submitClaimed(String jobId, String audioUrl, String challengeJobId) {
+        try {
+            String audioHash = resolveAudioHash(audioUrl);
+            if (audioHash != null) {
+                jobRepository.updateAudioHash(jobId, audioHash);
+                Optional<TranscriptCacheEntry> cached = transcriptCacheRepository
+                        .findByAudioHashAndOptionsHash(audioHash, optionsHash());
+                if (cached.isPresent()) {
+                    log.info("Transcript job {} reuses the transcript of audio {}", jobId, audioHash);
+                    publishResult(jobId, challengeJobId, cached.get().getTranscriptData(), cached.get().getText());
+                    return;
+                }
+            }
+
+            // this thread only submits; the webhook, the poller or the reconciler finishes the job
+            String transcriptId = createTranscript(audioUrl);
+            if (jobRepository.markSubmitted(jobId, transcriptId, LocalDateTime.now()) == 0) {
+                // a re-driven copy of this job was submitted first, or the job was failed meanwhile
+                log.warn("Transcript job {} already moved on, dropping transcript {}", jobId, transcriptId);
                 return;
             }
-            TranscriptMessage transcriptMessage = jsonToObject(message, TranscriptMessage.class);
+            if (webhookUrl.isBlank()) {
+                transcriptPollingService.track(transcriptId,
+                        body -> onTranscriptDone(jobId, body),
+                        error -> transition(jobId, PROCESSING, "ERROR", null, error));
+            }
+        } catch (Exception e) {
+            transition(jobId, ACTIVE, "ERROR", null, e.getMessage());
+            log.error("Error processing transcript request for jobId: {}, error: {}", jobId, e.getMessage());
+        }
+    }
 
-            updateJobStatus(jobId, "PROCESSING", null, null);
+    @Override
+    public void handleWebhook(String secret, TranscriptWebhookRequest request) {
+        if (webhookSecret.isBlank() || secret == null
+                || !MessageDigest.isEqual(webhookSecret.getBytes(StandardCharsets.UTF_8),
+                secret.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid webhook secret");
+        }
+        TranscriptJob job = jobRepository.findByProviderTranscriptId(request.getTranscriptId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "No transcript job for transcript id: " + request.getTranscriptId()));
+        try {
+            // the callback only says something changed; the provider's transcript is the source of truth
+            checkTranscript(job);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Could not fetch transcript", e);
+        }
+    }
 
-            AssemblyResponse result = processTranscription(transcriptMessage.getAudioUrl());
-            String challengeJobId = transcriptMessage.getChallengeJobId();
-            ChallengeJob challengeJob = ChallengeJob.builder()
-                    .jobId(challengeJobId)
-                    .responsePayload(objectToJson(result))
-                    .processedAt(Instant.now())
-                    .status("PENDING")
+    /**
+     * Slow fallback for lost webhooks: looks at jobs that have not moved for one interval and asks the provider directly.
+     */
+    @Scheduled(fixedDelayString = "${transcript.reconcile.interval-ms:60000}",
+            initialDelayString = "${transcript.reconcile.interval-ms:60000}")
+    public void reconcileTranscripts() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TranscriptJob> jobs = jobRepository.findByStatusInAndUpdatedAtBefore(
+                List.of("PROCESSING", "FINALIZING"), now.minus(Duration.ofMillis(reconcileIntervalMs)));
+        for (TranscriptJob job : jobs) {
+            if (job.getCreatedAt().isBefore(now.minusMinutes(reconcileTimeoutMinutes))) {
+                transition(job.getJobId(), IN_FLIGHT, "ERROR", null,
+                        "Transcription timeout after " + reconcileTimeoutMinutes + " minutes");
+                continue;
+            }
+            if (job.getProviderTranscriptId() == null) {
+                redriveSubmit(job, now);
+                continue;
+            }
+            if (transcriptPollingService.isTracking(job.getProviderTranscriptId())) {
+                continue;
+            }
+            if (webhookUrl.isBlank()) {
+                // e.g. picked up after a restart: hand it back to the poller instead of blocking here
+                String jobId = job.getJobId();
+                transcriptPollingService.track(job.getProviderTranscriptId(),
+                        body -> onTranscriptDone(jobId, body),
+                        error -> transition(jobId, PROCESSING, "ERROR", null, error));
+                continue;
+            }
+            try {
+                checkTranscript(job);
+            } catch (Exception e) {
+                log.warn("Reconciling transcript job {} failed: {}", job.getJobId(), e.getMessage());
+            }
+        }
+    }
+
+    private void checkTranscript(TranscriptJob job) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        if (jobRepository.claimFinalization(job.getJobId(), now, now.minusMinutes(FINALIZATION_STALE_MINUTES)) == 0) {
+            return;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(TRANSCRIPT_URL + "/" + job.getProviderTranscriptId()))
+                    .header("Authorization", API_KEY)
+                    .GET()
                     .build();
-            challengeJobRepository.save(challengeJob);
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new RuntimeException("Error getting transcript: "
+                            + new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                }
+                applyTranscript(job, TranscriptJsonParser.parse(objectMapper.getFactory(), body));
+            }
+        } catch (Exception e) {
+            jobRepository.releaseFinalization(job.getJobId(), LocalDateTime.now());
+            throw e;
+        }
+    }
 
-            kafkaTemplate.send("transcript-responses", challengeJobId, objectToJson(result))
-                    .whenComplete((sendResult, ex) -> {
-                        if (ex != null) {
-                            updateJobStatus(jobId, "ERROR", null, "Failed to send response to Kafka: " + ex.getMessage());
-                        }
-                    });
-            updateJobStatus(jobId, "COMPLETED", result.getText(), null);
+    private void onTranscriptDone(String jobId, TranscriptResult result) {
+        LocalDateTime now = LocalDateTime.now();
+        if (jobRepository.claimFinalization(jobId, now, now.minusMinutes(FINALIZATION_STALE_MINUTES)) == 0) {
+            return;
+        }
+        try {
+            TranscriptJob job = jobRepository.findByJobId(jobId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Transcript job not found with id: " + jobId));
+            applyTranscript(job, result);
+        } catch (Exception e) {
+            jobRepository.releaseFinalization(jobId, LocalDateTime.now());
+            log.error("Finishing transcript job {} failed: {}", jobId, e.getMessage());
+        }
+    }
 
+    // caller holds the FINALIZING claim
+    private void applyTranscript(TranscriptJob job, TranscriptResult result) {
+        String status = result.getStatus();
+        if ("completed".equals(status)) {
+            completeJob(job, result);
+        } else if ("error".equals(status)) {
+            transition(job.getJobId(), FINALIZING, "ERROR", null, "Transcription failed: " + result.getError());
+        } else {
+            jobRepository.releaseFinalization(job.getJobId(), LocalDateTime.now());
+        }
+    }
+
+    private void completeJob(TranscriptJob job, TranscriptResult result) {
+        byte[] payload = TranscriptCodec.encode(result);
+        if (job.getAudioHash() != null) {
+            try {
+                transcriptCacheRepository.save(TranscriptCacheEntry.builder()
+                        .audioHash(job.getAudioHash())
+                        .optionsHash(optionsHash())
+                        .transcriptData(payload)
+                        .text(result.getText())
+                        .providerTranscriptId(job.getProviderTranscriptId())
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // another job for the same audio finished first
+                log.debug("Transcript of audio {} is already cached", job.getAudioHash());
+            }
+        }
+        publishResult(job.getJobId(), job.getChallengeJobId(), payload, result.getText());
+    }
+
+    // caller owns the job, either through the PROCESSING claim (cache hit) or the FINALIZING claim
+    private void publishResult(String jobId, String challengeJobId, byte[] payload, String text) {
+        ChallengeJob challengeJob = ChallengeJob.builder()
+                .jobId(challengeJobId)
+                .responseData(payload)
+                .processedAt(Instant.now())
+                .status("PENDING")
+                .build();
+        challengeJobRepository.save(challengeJob);
+
+        binaryKafkaTemplate.send("transcript-responses", challengeJobId, payload)
+                .whenComplete((sendResult, ex) -> {
+                    if (ex != null) {
+                        transition(jobId, List.of("COMPLETED"), "ERROR", null,
+                                "Failed to send response to Kafka: " + ex.getMessage());
+                    }
+                });
+        transition(jobId, IN_FLIGHT, "COMPLETED", text, null);
+    }
+
+    // claimed but never submitted, e.g. the instance stopped with the job still queued for the submit pool
+    private void redriveSubmit(TranscriptJob job, LocalDateTime now) {
+        if (!"PROCESSING".equals(job.getStatus())
+                || jobRepository.reclaimSubmit(job.getJobId(), now, now.minusMinutes(submitStaleMinutes)) == 0) {
+            return;
+        }
+        log.info("Re-submitting transcript job {}, claimed at {} but never sent to the provider",
+                job.getJobId(), job.getUpdatedAt());
+        String jobId = job.getJobId();
+        transcriptSubmitExecutor.execute(() -> submitClaimed(jobId, job.getAudioUrl(), job.getChallengeJobId()));
+    }
+
+    private String resolveAudioHash(String audioUrl) {
+        List<String> known = lessonRepository.findAudioHashesByAudioPath(audioUrl);
+        if (!known.isEmpty()) {
+            return known.get(0);
+        }
+        // the lesson audio lands in the local cache anyway once it is segmented
+        try (CachedAudio audio = audioCacheService.acquire(audioUrl)) {
+            lessonRepository.updateAudioHashByAudioPath(audioUrl, audio.getContentHash());
+            return audio.getContentHash();
         } catch (Exception e) {
-            updateJobStatus(jobId, "ERROR", null, e.getMessage());
-            System.err.println("Error processing transcript request for jobId: " + jobId + ", error: " + e.getMessage());
+            log.warn("Could not hash audio {}, transcript cache skipped: {}", audioUrl, e.getMessage());
+            return null;
         }
     }
 
-    private AssemblyResponse processTranscription(String audioUrl) throws Exception {
-        String transcriptId = createTranscript(audioUrl);
-        return getTranscriptResult(transcriptId);
+    private String optionsHash() {
+        if (cachedOptionsHash == null) {
+            String source = TRANSCRIPT_URL + "|" + objectToJson(transcriptionOptions());
+            try {
+                cachedOptionsHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                        .digest(source.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+        return cachedOptionsHash;
     }
 
     private <T> T jsonToObject(String json, Class<T> clazz) {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
             return objectMapper.readValue(json, clazz);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("JSON conversion failed for object: " + clazz, e);
         }
     }
 
-    private void updateJobStatus(String jobId, String status, String result, String error) {
-        Optional<TranscriptJob> jobOpt = jobRepository.findByJobId(jobId);
-        if (jobOpt.isPresent()) {
-            TranscriptJob job = jobOpt.get();
-            job.setStatus(status);
-            job.setResult(result);
-            job.setError(error);
-            job.setUpdatedAt(LocalDateTime.now());
-            jobRepository.save(job);
-        }
-        else
-        {
-            throw new ResourceNotFoundException("Transcript job not found with id: " + jobId);
+    private boolean transition(String jobId, List<String> from, String status, String result, String error) {
+        if (jobRepository.transition(jobId, from, status, result, error, LocalDateTime.now()) == 0) {
+            log.debug("Transcript job {} is no longer in {}, {} skipped", jobId, from, status);
+            return false;
         }
+        jobStatusService.publish(JobStatusService.TRANSCRIPT, jobId, status, error);
+        return true;
     }
 
-    private String createTranscript(String audioUrl) throws Exception {
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("audio_url", audioUrl);
-
+    // everything that shapes the transcript; sorted so the cache key does not depend on map order
+    private Map<String, Object> transcriptionOptions() {
+        Map<String, Object> requestBody = new TreeMap<>();
         requestBody.put("format_text", true);
         requestBody.put("punctuate", true);
         requestBody.put("dual_channel", false);
-        requestBody.put("webhook_url",null);
 
         requestBody.put("word_boost",new String[]{});
         requestBody.put("boost_param","default");
@@ -205,6 +433,17 @@ public class TranscriptServiceImpl implements TranscriptService {
         requestBody.put("entity_detection", false);
         requestBody.put("iab_categories", false);
         requestBody.put("content_safety", false);
+        return requestBody;
+    }
+
+    private String createTranscript(String audioUrl) throws Exception {
+        Map<String, Object> requestBody = new HashMap<>(transcriptionOptions());
+        requestBody.put("audio_url", audioUrl);
+        if (!webhookUrl.isBlank()) {
+            requestBody.put("webhook_url", webhookUrl);
+            requestBody.put("webhook_auth_header_name", WEBHOOK_AUTH_HEADER);
+            requestBody.put("webhook_auth_header_value", webhookSecret);
+        }
 
         String jsonBody = objectToJson(requestBody);
 
@@ -218,86 +457,8 @@ public class TranscriptServiceImpl implements TranscriptService {
         HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 200) {
-            return parseJson(response.body(), "id");
+            return objectMapper.readTree(response.body()).path("id").asText(null);
         }
         throw new RuntimeException("Error creating transcript: " + response.body());
     }
-
-    private static String parseJson(String json, String key) {
-        try {
-            int keyIndex = json.indexOf("\"" + key + "\"");
-            if (keyIndex == -1) return null;
-
-            int colonIndex = json.indexOf(":", keyIndex);
-            if (colonIndex == -1) return null;
-
-            int valueStartIndex = json.indexOf("\"", colonIndex);
-            if (valueStartIndex == -1) return null;
-
-            int valueEndIndex = json.indexOf("\"", valueStartIndex + 1);
-            if (valueEndIndex == -1) return null;
-
-            return json.substring(valueStartIndex + 1, valueEndIndex);
-        } catch (Exception e) {
-            System.out.println("Error parsing JSON: " + e.getMessage());
-            System.out.println("JSON string: " + json);
-            return null;
-        }
-    }
-    private AssemblyResponse getTranscriptResult(String transcriptId) throws Exception {
-        String status = "";
-        String resultUrl = TRANSCRIPT_URL + "/" + transcriptId;
-
-        HttpResponse<String> response = null;
-        int pollCount = 0;
-        int maxPoll = 60;
-        while (!status.equals("completed") && pollCount < maxPoll) {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(resultUrl))
-                    .header("Authorization", API_KEY)
-                    .GET()
-                    .build();
-
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() != 200) {
-                throw new RuntimeException("Error getting transcript: " + response.body());
-            }
-
-            status = parseJson(response.body(), "status");
-
-            if (status.equals("error")) {
-                throw new RuntimeException("Transcription failed: " + parseJson(response.body(), "error"));
-            }
-
-            if (!status.equals("completed")) {
-                Thread.sleep(5000);
-                pollCount++;
-            }
-        }
-        if (!status.equals("completed")) {
-            throw new RuntimeException("Transcription timeout after " + maxPoll + " polling attempts");
-        }
-        return AssemblyResponse.builder()
-                .text(parseJson(response.body(), "text"))
-                .words(parseWords(response.body()))
-                .build();
-    }
-    private List<AssemblyWordInfoResponse> parseWords(String json) {
-        List<AssemblyWordInfoResponse> words = new ArrayList<>();
-        try {
-            for(JsonNode node : new ObjectMapper().readTree(json).get("words")) {
-                AssemblyWordInfoResponse wordInfo = new AssemblyWordInfoResponse();
-                wordInfo.setText(node.get("text").asText());
-                wordInfo.setStart(node.get("start").asInt());
-                wordInfo.setEnd(node.get("end").asInt());
-                wordInfo.setConfidence(node.get("confidence").asDouble());
-                words.add(wordInfo);
-            }
-            return words;
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error parsing words from JSON: " + e.getMessage());
-        }
-    }
-
 }
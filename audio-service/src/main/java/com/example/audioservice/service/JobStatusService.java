@@ -0,0 +1,27 @@
+package com.example.audioservice.service;
+
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public interface JobStatusService {
+    String TRANSCRIPT = "TRANSCRIPT";
+    String CHALLENGE = "CHALLENGE";
+    String SEGMENTATION = "SEGMENTATION";
+
+    void publish(String jobType, String jobId, String status, String error);
+
+    /**
+     * Sends the current snapshot, then a fresh one after every change of the job until it reaches a final status.
+     */
+    <T> SseEmitter stream(String jobType, String jobId, Supplier<T> snapshot, Function<T, String> statusOf);
+
+    /**
+     * Long-poll fallback: answers as soon as the job status differs from {@code knownStatus}, or with the
+     * unchanged snapshot once {@code timeoutMs} has passed.
+     */
+    <T> DeferredResult<T> awaitChange(String jobType, String jobId, String knownStatus, long timeoutMs,
+                                      Supplier<T> snapshot, Function<T, String> statusOf);
+}
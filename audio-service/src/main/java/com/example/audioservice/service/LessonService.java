@@ -9,10 +9,10 @@ import java.io.IOException;
 import java.util.List;
 
 public interface LessonService {
-    ResponseEntity<List<LessonResponse>>getLessons(Long sectionId);
+    ResponseEntity<byte[]> getLessons(Long sectionId);
     ResponseEntity<LessonResponse>addLesson(LessonRequest lessonRequest);
     ResponseEntity<String> audioPath(MultipartFile file) throws IOException;
-    ResponseEntity<List<LessonInfo>> getAllLessonsWithChallenge();
+    ResponseEntity<byte[]> getAllLessonsWithChallenge();
     ResponseEntity<LessonInfo> getLessonInfo(Long lessonId);
 
     ResponseEntity<List<LessonInfo>> getLessonsBySectionId(Long sectionId);
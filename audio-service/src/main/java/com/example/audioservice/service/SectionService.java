@@ -9,8 +9,8 @@ import java.util.List;
 
 public interface SectionService {
     ResponseEntity<SectionResponse> addSection(SectionRequest sectionRequest);
-    ResponseEntity<List<SectionResponse>> getAllSections(Long topicId);
-    ResponseEntity<List<SectionResponse>> getAllPremiumSections(Long topicId, String username);
+    ResponseEntity<byte[]> getAllSections(Long topicId);
+    ResponseEntity<byte[]> getAllPremiumSections(Long topicId, String username);
 
     ResponseEntity<List<SectionResponse>> getSectionsByFilter(SectionFilter filter, Long topicId);
 
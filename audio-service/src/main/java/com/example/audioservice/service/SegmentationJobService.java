@@ -0,0 +1,12 @@
+package com.example.audioservice.service;
+
+import com.example.audioservice.model.Response.SegmentationJobResponse;
+
+public interface SegmentationJobService {
+    /**
+     * Queues segmentation of a lesson. A lesson that already has a pending or running job gets that job back.
+     */
+    SegmentationJobResponse submitSegmentationJob(Long lessonId);
+
+    SegmentationJobResponse getJobStatus(String jobId);
+}
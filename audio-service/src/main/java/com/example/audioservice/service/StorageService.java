@@ -0,0 +1,14 @@
+package com.example.audioservice.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+public interface StorageService {
+    /**
+     * Streams {@code content} into the bucket through a resumable upload and returns the public download URL.
+     */
+    String upload(String objectName, String contentType, String contentDisposition, InputStream content) throws IOException;
+
+    String upload(String objectName, String contentType, String contentDisposition, Path file) throws IOException;
+}
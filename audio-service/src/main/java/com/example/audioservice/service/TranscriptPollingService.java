@@ -0,0 +1,17 @@
+package com.example.audioservice.service;
+
+import com.example.audioservice.model.DTO.TranscriptResult;
+
+import java.util.function.Consumer;
+
+public interface TranscriptPollingService {
+    /**
+     * Polls the provider for {@code transcriptId} until it is done. {@code onDone} receives the parsed final transcript
+     * (status {@code completed} or {@code error}); {@code onFailed} receives a message when polling gives up.
+     */
+    void track(String transcriptId, Consumer<TranscriptResult> onDone, Consumer<String> onFailed);
+
+    boolean isTracking(String transcriptId);
+
+    int getTrackedCount();
+}
@@ -1,14 +1,21 @@
 package com.example.audioservice.service;
 
 import com.example.audioservice.model.Request.TranscriptRequest;
+import com.example.audioservice.model.Request.TranscriptWebhookRequest;
 import com.example.audioservice.model.Response.TranscriptJobResponse;
 
 import java.util.List;
 
 public interface TranscriptService {
+    String WEBHOOK_AUTH_HEADER = "X-Webhook-Secret";
 
     List<String> submitTranscriptJob(TranscriptRequest transcriptRequest);
     TranscriptJobResponse getJobStatus(String jobId);
 
     String getJobResult(String jobId);
+
+    /**
+     * Completion callback from the ASR provider; {@code secret} is the value of the webhook auth header.
+     */
+    void handleWebhook(String secret, TranscriptWebhookRequest request);
 }
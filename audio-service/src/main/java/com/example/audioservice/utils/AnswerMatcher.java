@@ -0,0 +1,159 @@
+package com.example.audioservice.utils;
+
+import com.example.audioservice.model.Response.AnswerCheckResult;
+import com.example.audioservice.model.Response.PrefixCheckResult;
+import com.example.audioservice.model.Response.PrefixCheckResult.WordState;
+import com.example.audioservice.model.Response.WordResult;
+import com.example.audioservice.model.Response.WordResult.Mistake;
+
+import java.util.*;
+
+/**
+ * Answer key of one challenge, compiled for checking: the acceptable answers of every word position are lowercased
+ * into a hash set once, so a check is one lookup per word and needs neither the database nor the stored JSON. Edit
+ * distance patterns of the answers are compiled alongside, for telling typos from wrong words.
+ */
+public final class AnswerMatcher {
+    private final Long challengeId;
+    private final String fullSentence;
+    private final List<List<String>> acceptableAnswers;
+    private final Set<String>[] lowercased;
+    private final NearMiss.Pattern[][] patterns;
+
+    @SuppressWarnings("unchecked")
+    public AnswerMatcher(Long challengeId, String fullSentence, List<List<String>> acceptableAnswers) {
+        this.challengeId = challengeId;
+        this.fullSentence = fullSentence;
+        this.acceptableAnswers = acceptableAnswers.stream().map(List::copyOf).toList();
+        this.lowercased = new Set[acceptableAnswers.size()];
+        this.patterns = new NearMiss.Pattern[acceptableAnswers.size()][];
+        for (int i = 0; i < lowercased.length; i++) {
+            Set<String> answers = new HashSet<>();
+            for (String answer : acceptableAnswers.get(i)) {
+                answers.add(answer.toLowerCase(Locale.ROOT));
+            }
+            lowercased[i] = answers;
+            patterns[i] = answers.stream().map(NearMiss::compile).filter(Objects::nonNull)
+                    .toArray(NearMiss.Pattern[]::new);
+        }
+    }
+
+    public Long getChallengeId() {
+        return challengeId;
+    }
+
+    public String getFullSentence() {
+        return fullSentence;
+    }
+
+    public int size() {
+        return lowercased.length;
+    }
+
+    public boolean matches(int position, String userAnswer) {
+        return position < lowercased.length && userAnswer != null
+                && lowercased[position].contains(normalize(userAnswer));
+    }
+
+    /**
+     * Why a wrong answer is wrong. Expects the answer as {@link #normalize} leaves it.
+     */
+    public Mistake classify(int position, String normalizedAnswer) {
+        if (normalizedAnswer.isEmpty()) {
+            return Mistake.MISSING;
+        }
+        if (position >= patterns.length) {
+            return Mistake.WRONG;
+        }
+        for (NearMiss.Pattern pattern : patterns[position]) {
+            if (NearMiss.isOtherForm(pattern.form(), normalizedAnswer)) {
+                return Mistake.WRONG_FORM;
+            }
+        }
+        for (NearMiss.Pattern pattern : patterns[position]) {
+            int maxDistance = pattern.form().length() <= 4 ? 1 : 2;
+            if (NearMiss.distance(pattern, normalizedAnswer, maxDistance) <= maxDistance) {
+                return Mistake.TYPO;
+            }
+        }
+        return Mistake.WRONG;
+    }
+
+    public static String normalize(String userAnswer) {
+        return userAnswer == null ? "" : userAnswer.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks every position in one pass into a pre-sized result; answer lists are only attached when requested.
+     */
+    public AnswerCheckResult check(List<String> userAnswers, boolean includeAnswers) {
+        List<String> answers = userAnswers != null ? userAnswers : List.of();
+        int total = Math.max(lowercased.length, answers.size());
+        List<WordResult> wordResults = new ArrayList<>(total);
+        int correctWords = 0;
+        for (int i = 0; i < total; i++) {
+            String userAnswer = i < answers.size() ? answers.get(i) : "";
+            String normalized = normalize(userAnswer);
+            boolean correct = i < lowercased.length && lowercased[i].contains(normalized);
+            List<String> acceptable = !includeAnswers ? null
+                    : i < acceptableAnswers.size() ? acceptableAnswers.get(i) : List.of();
+            Mistake mistake = correct ? null : classify(i, normalized);
+            wordResults.add(new WordResult(i, userAnswer, correct, acceptable, mistake));
+            if (correct) {
+                correctWords++;
+            }
+        }
+        boolean allCorrect = correctWords == total;
+        return AnswerCheckResult.builder()
+                .challengeId(challengeId)
+                .fullSentence(fullSentence)
+                .allCorrect(allCorrect)
+                .isPass(allCorrect ? 1 : -1)
+                .totalWords(lowercased.length)
+                .correctWords(correctWords)
+                .wordResults(wordResults)
+                .build();
+    }
+
+    /**
+     * Checks the words typed so far. The last word counts as {@link WordState#PARTIAL} while it is the start of an
+     * acceptable answer, so an unfinished word is not reported as wrong.
+     */
+    public PrefixCheckResult checkPrefix(List<String> typedWords) {
+        List<String> typed = typedWords != null ? typedWords : List.of();
+        List<WordState> states = new ArrayList<>(typed.size());
+        int correctWords = 0;
+        for (int i = 0; i < typed.size(); i++) {
+            String word = typed.get(i);
+            WordState state;
+            if (matches(i, word)) {
+                state = WordState.CORRECT;
+                correctWords++;
+            } else if (i == typed.size() - 1 && isPrefix(i, word)) {
+                state = WordState.PARTIAL;
+            } else {
+                state = WordState.WRONG;
+            }
+            states.add(state);
+        }
+        return PrefixCheckResult.builder()
+                .challengeId(challengeId)
+                .totalWords(lowercased.length)
+                .states(states)
+                .complete(correctWords == lowercased.length && typed.size() == lowercased.length)
+                .build();
+    }
+
+    private boolean isPrefix(int position, String word) {
+        if (position >= lowercased.length || word == null) {
+            return false;
+        }
+        String prefix = normalize(word);
+        for (String answer : lowercased[position]) {
+            if (answer.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.audioservice.utils;
+
+import java.util.Arrays;
+
+/**
+ * Tells near misses from plain wrong words. Edit distance uses Myers' bit-parallel algorithm (one machine word per
+ * text character) against a pattern compiled once per acceptable form, and gives up as soon as the limit can no
+ * longer be met. Nothing here allocates per call.
+ */
+public final class NearMiss {
+    public static final int MAX_PATTERN_LENGTH = 64;
+
+    // endings that turn one form of a word into another: walk/walks/walked/walking, try/tries, make/making
+    private static final String[] ENDINGS = {
+            "", "e", "y", "s", "es", "ed", "d", "ing", "er", "est", "ly", "ies", "ied", "ier", "iest", "'s"
+    };
+    private static final int MIN_STEM = 3;
+
+    private NearMiss() {
+    }
+
+    /**
+     * Match masks of a lowercased form: bit i of {@code masks[k]} is set when {@code form.charAt(i) == chars[k]}.
+     * Distinct characters are few in a word, so a linear lookup beats a 64K table.
+     */
+    public record Pattern(String form, char[] chars, long[] masks) {
+    }
+
+    /**
+     * Compiled pattern of the form, or null when it is longer than {@link #MAX_PATTERN_LENGTH}.
+     */
+    public static Pattern compile(String form) {
+        int m = form.length();
+        if (m == 0 || m > MAX_PATTERN_LENGTH) {
+            return null;
+        }
+        char[] chars = new char[m];
+        long[] masks = new long[m];
+        int distinct = 0;
+        for (int i = 0; i < m; i++) {
+            char c = form.charAt(i);
+            int k = 0;
+            while (k < distinct && chars[k] != c) {
+                k++;
+            }
+            if (k == distinct) {
+                chars[distinct++] = c;
+            }
+            masks[k] |= 1L << i;
+        }
+        return new Pattern(form, Arrays.copyOf(chars, distinct), Arrays.copyOf(masks, distinct));
+    }
+
+    /**
+     * Levenshtein distance between the pattern and {@code text}, or {@code maxDistance + 1} once it is certain to
+     * exceed {@code maxDistance}.
+     */
+    public static int distance(Pattern pattern, CharSequence text, int maxDistance) {
+        int m = pattern.form().length();
+        int n = text.length();
+        if (Math.abs(m - n) > maxDistance) {
+            return maxDistance + 1;
+        }
+        long high = 1L << (m - 1);
+        long pv = m == 64 ? -1L : (1L << m) - 1;
+        long mv = 0;
+        int score = m;
+        for (int j = 0; j < n; j++) {
+            long eq = peq(pattern, text.charAt(j));
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & high) != 0) {
+                score++;
+            } else if ((mh & high) != 0) {
+                score--;
+            }
+            // the last row moves by at most one per remaining text character
+            if (score - (n - j - 1) > maxDistance) {
+                return maxDistance + 1;
+            }
+            ph = (ph << 1) | 1;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+        }
+        return Math.min(score, maxDistance + 1);
+    }
+
+    /**
+     * Whether {@code a} and {@code b} are different forms of one word: a shared stem of at least three letters
+     * followed by nothing or a common inflectional ending on each side. A final y that turns into i before the
+     * ending counts towards the stem, so try/tries qualifies.
+     */
+    public static boolean isOtherForm(String a, String b) {
+        int stem = 0;
+        int limit = Math.min(a.length(), b.length());
+        while (stem < limit && a.charAt(stem) == b.charAt(stem)) {
+            stem++;
+        }
+        int minStem = isYToI(a, b, stem) ? MIN_STEM - 1 : MIN_STEM;
+        if (stem < minStem || (stem == a.length() && stem == b.length())) {
+            return false;
+        }
+        // back off into the shared part: "walked"/"walker" share "walke", but the endings start after "walk"
+        while (stem > minStem && !(isEnding(a, stem) && isEnding(b, stem))) {
+            stem--;
+        }
+        return isEnding(a, stem) && isEnding(b, stem);
+    }
+
+    private static boolean isYToI(String a, String b, int at) {
+        if (at >= a.length() || at >= b.length()) {
+            return false;
+        }
+        char x = a.charAt(at);
+        char y = b.charAt(at);
+        return (x == 'y' && y == 'i') || (x == 'i' && y == 'y');
+    }
+
+    private static boolean isEnding(String word, int from) {
+        int length = word.length() - from;
+        for (String ending : ENDINGS) {
+            if (ending.length() == length && word.regionMatches(from, ending, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long peq(Pattern pattern, char c) {
+        char[] chars = pattern.chars();
+        for (int k = 0; k < chars.length; k++) {
+            if (chars[k] == c) {
+                return pattern.masks()[k];
+            }
+        }
+        return 0;
+    }
+}
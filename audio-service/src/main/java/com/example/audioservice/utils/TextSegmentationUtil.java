@@ -1,9 +1,11 @@
 package com.example.audioservice.utils;
 
 import java.util.*;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
+/**
+ * Splits a sentence into word positions and the answers accepted at each one. Tokens are read by a single character
+ * scan (no regex) and classified while scanning; spellings of 0-999 come from tables built once.
+ */
 public class TextSegmentationUtil {
     private static final Map<String, List<String>> ALTERNATIVE_FORMS_MAP = new HashMap<>();
 
@@ -29,15 +31,13 @@ public class TextSegmentationUtil {
     }
 
     private static void addAlternatives(String... forms) {
-        List<String> formList = Arrays.asList(forms);
+        List<String> formList = List.of(forms);
         for (String form : forms) {
-            ALTERNATIVE_FORMS_MAP.put(form.toLowerCase(), formList);
+            ALTERNATIVE_FORMS_MAP.put(form.toLowerCase(Locale.ROOT), formList);
         }
     }
 
-    private static final Pattern WORD_PATTERN = Pattern.compile(
-            "\\b\\w+(?:['’]\\w+)*(?:[.!?,:;])?"
-    );
+    private enum TokenType {WORD, NUMBER, ORDINAL, CONTRACTION, ABBREVIATION}
 
     /**
      * Chia câu thành các segments với xử lý tối ưu
@@ -48,50 +48,102 @@ public class TextSegmentationUtil {
         }
 
         List<List<String>> segments = new ArrayList<>();
-        Matcher matcher = WORD_PATTERN.matcher(fullSentence);
-
-        while (matcher.find()) {
-            String word = matcher.group();
-            if (!word.isBlank()) {
-                segments.add(getAlternatives(word));
+        int length = fullSentence.length();
+        int i = 0;
+        while (i < length) {
+            if (!isWordChar(fullSentence.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            TokenType type;
+            int abbreviationEnd = abbreviationEnd(fullSentence, i);
+            if (abbreviationEnd > 0) {
+                type = TokenType.ABBREVIATION;
+                i = abbreviationEnd;
+            } else {
+                int digits = 0;
+                while (i < length && isWordChar(fullSentence.charAt(i))) {
+                    digits += isDigit(fullSentence.charAt(i)) ? 1 : 0;
+                    i++;
+                }
+                type = classify(fullSentence, start, i, digits);
+                // apostrophe parts, as in "don't" or "o'clock"; a trailing apostrophe is not part of the word
+                while (i + 1 < length && isApostrophe(fullSentence.charAt(i)) && isWordChar(fullSentence.charAt(i + 1))) {
+                    i++;
+                    while (i < length && isWordChar(fullSentence.charAt(i))) {
+                        i++;
+                    }
+                    type = TokenType.CONTRACTION;
+                }
+            }
+            char punctuation = 0;
+            if (i < length && isPunctuation(fullSentence.charAt(i))) {
+                punctuation = fullSentence.charAt(i);
+                i++;
             }
+            segments.add(getAlternatives(fullSentence.substring(start, i), type, punctuation));
         }
 
         return segments;
     }
 
+    // single letters each followed by a dot, at least two of them: "a.m.", "U.S."
+    private static int abbreviationEnd(String text, int start) {
+        int i = start;
+        int letters = 0;
+        while (i + 1 < text.length() && isLetter(text.charAt(i)) && text.charAt(i + 1) == '.'
+                && (i == start || text.charAt(i - 1) == '.')) {
+            i += 2;
+            letters++;
+        }
+        if (letters < 2 || (i < text.length() && isWordChar(text.charAt(i)))) {
+            return -1;
+        }
+        return i;
+    }
+
+    private static TokenType classify(String text, int start, int end, int digits) {
+        int length = end - start;
+        if (digits == length) {
+            return TokenType.NUMBER;
+        }
+        if (length >= 3 && length <= 5 && digits == length - 2 && isOrdinalSuffix(text, end - 2)) {
+            return TokenType.ORDINAL;
+        }
+        return TokenType.WORD;
+    }
+
     /**
      * Lấy các dạng thay thế với cơ chế cache
      */
-    private static List<String> getAlternatives(String word) {
+    private static List<String> getAlternatives(String word, TokenType type, char punctuation) {
         boolean endsWithDot = word.endsWith(".");
         String baseWord = endsWithDot ? word.substring(0, word.length() - 1) : word;
-        String lcBaseWord = baseWord.toLowerCase();
+        String lcBaseWord = baseWord.toLowerCase(Locale.ROOT);
+        String lcWord = word.toLowerCase(Locale.ROOT);
 
-        if (ALTERNATIVE_FORMS_MAP.containsKey(word.toLowerCase())) {
-            return new ArrayList<>(ALTERNATIVE_FORMS_MAP.get(word.toLowerCase()));
+        List<String> forms = ALTERNATIVE_FORMS_MAP.get(lcWord);
+        if (forms == null && endsWithDot) {
+            forms = ALTERNATIVE_FORMS_MAP.get(lcBaseWord);
         }
-
-        if (endsWithDot && ALTERNATIVE_FORMS_MAP.containsKey(lcBaseWord)) {
-            return new ArrayList<>(ALTERNATIVE_FORMS_MAP.get(lcBaseWord));
+        if (forms != null) {
+            return forms;
         }
 
-        if (isNumber(word) || isOrdinalNumber(word) ||
-                (endsWithDot && (isNumber(baseWord) || isOrdinalNumber(baseWord)))) {
-
-            return handleNumbers(endsWithDot ? baseWord : word);
+        if ((type == TokenType.NUMBER || type == TokenType.ORDINAL) && (punctuation == 0 || punctuation == '.')) {
+            return handleNumbers(baseWord, type);
         }
 
-        List<String> alternatives = new ArrayList<>();
+        List<String> alternatives = new ArrayList<>(endsWithDot ? 6 : 3);
 
         alternatives.add(word);
 
-        String lcWord = word.toLowerCase();
         if (!word.equals(lcWord)) {
             alternatives.add(lcWord);
         }
 
-        String ucWord = word.toUpperCase();
+        String ucWord = word.toUpperCase(Locale.ROOT);
         if (!word.equals(ucWord)) {
             alternatives.add(ucWord);
         }
@@ -103,7 +155,7 @@ public class TextSegmentationUtil {
                 alternatives.add(lcBaseWord);
             }
 
-            String ucBaseWord = baseWord.toUpperCase();
+            String ucBaseWord = baseWord.toUpperCase(Locale.ROOT);
             if (!baseWord.equals(ucBaseWord)) {
                 alternatives.add(ucBaseWord);
             }
@@ -115,102 +167,32 @@ public class TextSegmentationUtil {
     /**
      * Xử lý các trường hợp đặc biệt với số
      */
-    private static List<String> handleNumbers(String number) {
-        List<String> results = new ArrayList<>();
+    private static List<String> handleNumbers(String number, TokenType type) {
+        List<String> results = new ArrayList<>(3);
         results.add(number);
 
-        // Xử lý số thường
-        String wordForm = convertNumberToWord(number);
-        if (wordForm != null) {
-            results.add(wordForm);
-        }
-
-        // Xử lý số thứ tự
-        String ordinalForm = convertToOrdinalWord(number);
-        if (ordinalForm != null) {
-            results.add(ordinalForm);
+        int digits = type == TokenType.ORDINAL ? number.length() - 2 : number.length();
+        int n = parseUpTo999(number, digits);
+        if (n >= 0) {
+            results.add(CARDINALS[n]);
+            if (type == TokenType.ORDINAL) {
+                results.add(ORDINALS[n]);
+            }
         }
 
         return results;
     }
 
-    /**
-     * Chuyển số thành chữ (hỗ trợ đến 999)
-     */
-    private static String convertNumberToWord(String number) {
-        try {
-            // Loại bỏ hậu tố thứ tự nếu có
-            String cleanNumber = number.replaceAll("(?i)(st|nd|rd|th)", "");
-            int n = Integer.parseInt(cleanNumber);
-            if (n < 0 || n > 999) return null;
-
-            if (n < 20) return BASIC_NUMBERS[n];
-            if (n < 100) return convertTens(n);
-            return convertHundreds(n);
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
-
-    private static String convertTens(int n) {
-        if (n < 20) return BASIC_NUMBERS[n];
-        int tens = n / 10;
-        int units = n % 10;
-        return TENS[tens] + (units > 0 ? "-" + BASIC_NUMBERS[units] : "");
-    }
-
-    private static String convertHundreds(int n) {
-        int hundreds = n / 100;
-        int remainder = n % 100;
-        String result = BASIC_NUMBERS[hundreds] + " hundred";
-        if (remainder > 0) result += " and " + convertNumberToWord(String.valueOf(remainder));
-        return result;
-    }
-
-    /**
-     * Chuyển số thứ tự thành chữ
-     */
-    private static String convertToOrdinalWord(String ordinal) {
-        if (!isOrdinalNumber(ordinal)) {
-            return null;
-        }
-
-        try {
-            // Loại bỏ hậu tố và dấu chấm
-            String cleanNum = ordinal.replaceAll("(?i)(st|nd|rd|th|\\.)", "");
-            int n = Integer.parseInt(cleanNum);
-
-            if (n < 0 || n > 999) return null;
-
-            // Xử lý các số đặc biệt
-            if (n == 0) return "zeroth";
-            if (n <= 20) return ORDINAL_UP_TO_20[n];
-
-            // Xử lý số tròn chục (20, 30, ...)
-            if (n % 10 == 0) {
-                int tens = n / 10;
-                return TENS_ORDINAL[tens];
-            }
-
-            // Xử lý số có 2 chữ số (21-99)
-            if (n < 100) {
-                int tens = (n / 10) * 10;
-                int units = n % 10;
-                return TENS[tens / 10] + "-" + ORDINAL_UP_TO_20[units];
-            }
-
-            // Xử lý số có 3 chữ số
-            int hundreds = n / 100;
-            int remainder = n % 100;
-            String base = BASIC_NUMBERS[hundreds] + " hundred";
-            if (remainder == 0) {
-                return base + "th";
-            } else {
-                return base + " and " + convertToOrdinalWord(String.valueOf(remainder));
+    // -1 when the value is above 999
+    private static int parseUpTo999(String number, int digits) {
+        int n = 0;
+        for (int i = 0; i < digits; i++) {
+            n = n * 10 + (number.charAt(i) - '0');
+            if (n > 999) {
+                return -1;
             }
-        } catch (NumberFormatException e) {
-            return null;
         }
+        return n;
     }
 
     // Dữ liệu hỗ trợ chuyển đổi số
@@ -235,18 +217,57 @@ public class TextSegmentationUtil {
             "sixtieth", "seventieth", "eightieth", "ninetieth"
     };
 
-    /**
-     * Kiểm tra chuỗi số
-     */
-    private static boolean isNumber(String str) {
-        return str.matches("\\d+");
+    private static final String[] CARDINALS = new String[1000];
+    private static final String[] ORDINALS = new String[1000];
+
+    static {
+        for (int n = 0; n < 100; n++) {
+            int tens = n / 10;
+            int units = n % 10;
+            if (n < 20) {
+                CARDINALS[n] = BASIC_NUMBERS[n];
+            } else {
+                CARDINALS[n] = TENS[tens] + (units > 0 ? "-" + BASIC_NUMBERS[units] : "");
+            }
+            if (n <= 20) {
+                ORDINALS[n] = ORDINAL_UP_TO_20[n];
+            } else {
+                ORDINALS[n] = units == 0 ? TENS_ORDINAL[tens] : TENS[tens] + "-" + ORDINAL_UP_TO_20[units];
+            }
+        }
+        for (int n = 100; n < 1000; n++) {
+            String base = BASIC_NUMBERS[n / 100] + " hundred";
+            int remainder = n % 100;
+            CARDINALS[n] = remainder == 0 ? base : base + " and " + CARDINALS[remainder];
+            ORDINALS[n] = remainder == 0 ? base + "th" : base + " and " + ORDINALS[remainder];
+        }
     }
 
-    /**
-     * Kiểm tra số thứ tự
-     */
-    private static boolean isOrdinalNumber(String str) {
-        return str.matches("(?i)\\d{1,3}(st|nd|rd|th)");
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '’';
+    }
+
+    private static boolean isPunctuation(char c) {
+        return c == '.' || c == '!' || c == '?' || c == ',' || c == ':' || c == ';';
+    }
+
+    private static boolean isOrdinalSuffix(String text, int at) {
+        char first = Character.toLowerCase(text.charAt(at));
+        char second = Character.toLowerCase(text.charAt(at + 1));
+        return (first == 's' && second == 't') || (first == 'n' && second == 'd')
+                || (first == 'r' && second == 'd') || (first == 't' && second == 'h');
     }
 
     /**
@@ -269,51 +290,4 @@ public class TextSegmentationUtil {
         }
         return true;
     }
-
-    public static Map<String, Object> getDetailedResult(List<List<String>> wordSegments, List<String> userAnswers) {
-        Map<String, Object> result = new HashMap<>();
-        List<Map<String, Object>> wordResults = new ArrayList<>();
-
-        boolean allCorrect = true;
-
-        for (int i = 0; i < Math.max(wordSegments.size(), userAnswers.size()); i++) {
-            Map<String, Object> wordResult = new HashMap<>();
-            wordResult.put("index", i);
-
-            if (i < userAnswers.size()) {
-                wordResult.put("userAnswer", userAnswers.get(i));
-            } else {
-                wordResult.put("userAnswer", "");
-            }
-
-            if (i < wordSegments.size()) {
-                List<String> acceptableAnswers = wordSegments.get(i);
-                wordResult.put("acceptableAnswers", acceptableAnswers);
-
-                String userAnswer = i < userAnswers.size() ? userAnswers.get(i).trim() : "";
-                boolean isCorrect = acceptableAnswers.stream()
-                        .anyMatch(answer -> answer.equalsIgnoreCase(userAnswer));
-
-                wordResult.put("correct", isCorrect);
-                if (!isCorrect) {
-                    allCorrect = false;
-                }
-            } else {
-                wordResult.put("acceptableAnswers", Arrays.asList());
-                wordResult.put("correct", false);
-                allCorrect = false;
-            }
-
-            wordResults.add(wordResult);
-        }
-
-        result.put("allCorrect", allCorrect);
-        result.put("wordResults", wordResults);
-        result.put("totalWords", wordSegments.size());
-        result.put("correctWords", wordResults.stream()
-                .mapToInt(wr -> (Boolean) wr.get("correct") ? 1 : 0)
-                .sum());
-
-        return result;
-    }
-}
\ No newline at end of file
+}
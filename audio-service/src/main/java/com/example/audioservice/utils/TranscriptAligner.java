@@ -0,0 +1,423 @@
+package com.example.audioservice.utils;
+
+import com.example.audioservice.model.DTO.TranscriptWords;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds where the sentences of a lesson occur in a word-level transcript.
+ * <p>
+ * Transcript words are normalized and interned once into an int array, with a posting list of positions per distinct
+ * word. A sentence is only compared at the positions of its rarest word, so each lookup touches a handful of
+ * candidates instead of every start index. Sentences are placed longest first, each at its leftmost exact occurrence
+ * that does not overlap a sentence placed before it.
+ * <p>
+ * With a {@link Tolerance}, sentences without an exact occurrence are aligned afterwards by a banded edit distance
+ * between the answer key and the transcript. Exact matches that appear in lesson order act as anchors, so only the
+ * stretches between them are aligned, each in O(words x band) time and memory within {@link Tolerance#maxCells()}.
+ */
+public final class TranscriptAligner {
+    private static final int UNKNOWN = -1;
+    // a sentence word the transcript never has; distinct from UNKNOWN so the two never match each other
+    private static final int MISSING = -2;
+    private static final int INF = Integer.MAX_VALUE / 2;
+    private static final byte NONE = 0;
+    private static final byte DIAGONAL = 1;
+    private static final byte SKIP_SENTENCE_WORD = 2;
+    private static final byte SKIP_TRANSCRIPT_WORD = 3;
+
+    private final int[] tokens;
+    private final Map<String, Integer> dictionary;
+    private final int[][] postings;
+
+    public TranscriptAligner(TranscriptWords words) {
+        int count = words.size();
+        tokens = new int[count];
+        dictionary = new HashMap<>(Math.max(16, count / 2));
+        int[] frequency = new int[Math.max(16, count)];
+        for (int i = 0; i < count; i++) {
+            String word = normalizeWord(words.text(i));
+            if (word.isEmpty()) {
+                tokens[i] = UNKNOWN;
+                continue;
+            }
+            Integer id = dictionary.get(word);
+            if (id == null) {
+                id = dictionary.size();
+                dictionary.put(word, id);
+            }
+            tokens[i] = id;
+            frequency[id]++;
+        }
+        postings = new int[dictionary.size()][];
+        for (int id = 0; id < postings.length; id++) {
+            postings[id] = new int[frequency[id]];
+        }
+        int[] filled = new int[postings.length];
+        for (int i = 0; i < count; i++) {
+            if (tokens[i] != UNKNOWN) {
+                postings[tokens[i]][filled[tokens[i]]++] = i;
+            }
+        }
+    }
+
+    /**
+     * @return per sentence the matched word range, or {@code null} when the sentence does not occur
+     */
+    public Span[] align(List<String> sentences) {
+        return align(sentences, null);
+    }
+
+    /**
+     * @param sentences in lesson order
+     * @param tolerance null for exact matches only
+     * @return per sentence the matched word range, or {@code null} when no alignment was good enough
+     */
+    public Span[] align(List<String> sentences, Tolerance tolerance) {
+        int n = sentences.size();
+        Span[] spans = new Span[n];
+        if (tokens.length == 0) {
+            return spans;
+        }
+
+        int[][] targets = new int[n][];
+        List<Integer> order = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String sentence = sentences.get(i);
+            if (sentence == null || sentence.isBlank()) {
+                continue;
+            }
+            targets[i] = lookup(tokenize(sentence));
+            if (targets[i] != null && isKnown(targets[i])) {
+                order.add(i);
+            }
+        }
+        // longest first, ties keep input order
+        order.sort((a, b) -> Integer.compare(targets[b].length, targets[a].length));
+
+        boolean[] used = new boolean[tokens.length];
+        for (int index : order) {
+            int start = find(targets[index], used);
+            if (start >= 0) {
+                int end = start + targets[index].length - 1;
+                Arrays.fill(used, start, end + 1, true);
+                spans[index] = new Span(start, end, 1.0);
+            }
+        }
+        if (tolerance != null) {
+            alignRemaining(targets, spans, tolerance);
+        }
+        return spans;
+    }
+
+    private void alignRemaining(int[][] targets, Span[] spans, Tolerance tolerance) {
+        int previousEnd = -1;
+        List<Integer> gap = new ArrayList<>();
+        int next = 0;
+        for (int anchor : orderedAnchors(spans)) {
+            for (; next < anchor; next++) {
+                if (spans[next] == null && targets[next] != null) {
+                    gap.add(next);
+                }
+            }
+            alignGap(gap, targets, previousEnd + 1, spans[anchor].start(), tolerance, spans);
+            gap.clear();
+            previousEnd = spans[anchor].end();
+            next = anchor + 1;
+        }
+        for (; next < spans.length; next++) {
+            if (spans[next] == null && targets[next] != null) {
+                gap.add(next);
+            }
+        }
+        alignGap(gap, targets, previousEnd + 1, tokens.length, tolerance, spans);
+    }
+
+    // the band follows the straight line from the first to the last cell of the matrix
+    private static int diagonal(int i, int m, int n) {
+        return (int) ((long) n * i / m);
+    }
+
+    // longest run of exact matches whose transcript positions increase with the lesson order
+    private static List<Integer> orderedAnchors(Span[] spans) {
+        int[] tails = new int[spans.length];
+        int[] previous = new int[spans.length];
+        int length = 0;
+        for (int i = 0; i < spans.length; i++) {
+            if (spans[i] == null) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (spans[tails[mid]].start() < spans[i].start()) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            length = Math.max(length, low + 1);
+        }
+        Integer[] anchors = new Integer[length];
+        for (int i = length - 1, current = length > 0 ? tails[length - 1] : -1; i >= 0; i--) {
+            anchors[i] = current;
+            current = previous[current];
+        }
+        return Arrays.asList(anchors);
+    }
+
+    /**
+     * Aligns the words of the gap sentences, back to back, against transcript words [from, to). Skipping a word costs
+     * 1 and a substitution 2, so the cheapest path is the one with the most matching words; ties prefer substitutions,
+     * which keeps misheard words at the edge of a sentence inside its range.
+     */
+    private void alignGap(List<Integer> gap, int[][] targets, int from, int to, Tolerance tolerance, Span[] spans) {
+        int n = to - from;
+        if (gap.isEmpty() || n <= 0) {
+            return;
+        }
+        int m = 0;
+        for (int index : gap) {
+            m += targets[index].length;
+        }
+        int[] key = new int[m];
+        int position = 0;
+        for (int index : gap) {
+            System.arraycopy(targets[index], 0, key, position, targets[index].length);
+            position += targets[index].length;
+        }
+
+        long budgetBand = (tolerance.maxCells() / (m + 1) - 1) / 2;
+        int band = (int) Math.min(budgetBand, (long) tolerance.minBand() + Math.abs(n - m));
+        if (band < 1) {
+            return;
+        }
+        int width = 2 * band + 1;
+
+        byte[] moves = new byte[(m + 1) * width];
+        int[] previous = new int[width];
+        int[] current = new int[width];
+        int low = -band;
+        for (int d = 0; d < width; d++) {
+            int j = low + d;
+            if (j < 0 || j > n) {
+                previous[d] = INF;
+            } else {
+                previous[d] = j;
+            }
+        }
+        for (int i = 1; i <= m; i++) {
+            int previousLow = low;
+            low = diagonal(i, m, n) - band;
+            for (int d = 0; d < width; d++) {
+                int j = low + d;
+                if (j < 0 || j > n) {
+                    current[d] = INF;
+                    continue;
+                }
+                int best = INF;
+                byte move = NONE;
+                int up = j - previousLow;
+                if (up >= 0 && up < width && previous[up] < INF) {
+                    best = previous[up] + 1;
+                    move = SKIP_SENTENCE_WORD;
+                }
+                int diag = up - 1;
+                if (j > 0 && diag >= 0 && diag < width && previous[diag] < INF) {
+                    int cost = previous[diag] + (key[i - 1] == tokens[from + j - 1] ? 0 : 2);
+                    if (cost <= best) {
+                        best = cost;
+                        move = DIAGONAL;
+                    }
+                }
+                if (d > 0 && current[d - 1] < INF && current[d - 1] + 1 < best) {
+                    best = current[d - 1] + 1;
+                    move = SKIP_TRANSCRIPT_WORD;
+                }
+                current[d] = best;
+                moves[i * width + d] = move;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        int endD = n - low;
+        if (endD < 0 || endD >= width || previous[endD] >= INF) {
+            return;
+        }
+
+        // transcript position each sentence word landed on, -1 when it was skipped
+        int[] aligned = new int[m];
+        int i = m;
+        int j = low + endD;
+        while (i > 0) {
+            int rowLow = diagonal(i, m, n) - band;
+            byte move = moves[i * width + (j - rowLow)];
+            if (move == DIAGONAL) {
+                aligned[i - 1] = from + j - 1;
+                i--;
+                j--;
+            } else if (move == SKIP_SENTENCE_WORD) {
+                aligned[i - 1] = -1;
+                i--;
+            } else if (move == SKIP_TRANSCRIPT_WORD) {
+                j--;
+            } else {
+                return;
+            }
+        }
+
+        position = 0;
+        for (int index : gap) {
+            int length = targets[index].length;
+            int first = -1;
+            int last = -1;
+            int matched = 0;
+            for (int w = position; w < position + length; w++) {
+                if (aligned[w] < 0) {
+                    continue;
+                }
+                if (first < 0) {
+                    first = aligned[w];
+                }
+                last = aligned[w];
+                if (tokens[aligned[w]] == key[w]) {
+                    matched++;
+                }
+            }
+            position += length;
+            if (matched == 0) {
+                continue;
+            }
+            double confidence = (double) matched / Math.max(length, last - first + 1);
+            if (confidence >= tolerance.minConfidence()) {
+                spans[index] = new Span(first, last, confidence);
+            }
+        }
+    }
+
+    private int find(int[] target, boolean[] used) {
+        int anchor = 0;
+        for (int i = 1; i < target.length; i++) {
+            if (postings[target[i]].length < postings[target[anchor]].length) {
+                anchor = i;
+            }
+        }
+        // positions are ascending, so the first hit is the leftmost occurrence
+        for (int position : postings[target[anchor]]) {
+            int start = position - anchor;
+            if (start < 0 || start + target.length > tokens.length) {
+                continue;
+            }
+            if (matches(target, start) && isFree(used, start, start + target.length)) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(int[] target, int start) {
+        for (int i = 0; i < target.length; i++) {
+            if (tokens[start + i] != target[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFree(boolean[] used, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (used[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // words the transcript never has become MISSING; null for a sentence without words
+    private int[] lookup(List<String> words) {
+        if (words.isEmpty()) {
+            return null;
+        }
+        int[] ids = new int[words.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = dictionary.getOrDefault(words.get(i), MISSING);
+        }
+        return ids;
+    }
+
+    // a sentence with a word the transcript never has cannot occur exactly
+    private static boolean isKnown(int[] target) {
+        for (int id : target) {
+            if (id == MISSING) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lowercase ASCII letters and digits of each whitespace-separated word; everything else is dropped.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!current.isEmpty()) {
+                    words.add(current.toString());
+                    current.setLength(0);
+                }
+            } else {
+                appendNormalized(current, c);
+            }
+        }
+        if (!current.isEmpty()) {
+            words.add(current.toString());
+        }
+        return words;
+    }
+
+    public static String normalizeWord(String word) {
+        if (word == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            appendNormalized(normalized, word.charAt(i));
+        }
+        return normalized.toString();
+    }
+
+    private static void appendNormalized(StringBuilder out, char c) {
+        if (c >= 'A' && c <= 'Z') {
+            out.append((char) (c + ('a' - 'A')));
+        } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+            out.append(c);
+        }
+    }
+
+    /**
+     * Word range of a sentence in the transcript; confidence is 1 for exact matches, otherwise the share of matching
+     * words over the longer of sentence and range.
+     */
+    public record Span(int start, int end, double confidence) {
+    }
+
+    /**
+     * @param minBand       band half-width on top of the length difference of a stretch
+     * @param maxCells      upper bound for the traceback matrix of one stretch, in bytes
+     * @param minConfidence tolerant alignments below this are dropped
+     */
+    public record Tolerance(int minBand, long maxCells, double minConfidence) {
+    }
+}
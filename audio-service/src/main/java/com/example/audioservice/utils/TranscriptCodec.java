@@ -0,0 +1,180 @@
+package com.example.audioservice.utils;
+
+import com.example.audioservice.model.DTO.TranscriptResult;
+import com.example.audioservice.model.DTO.TranscriptWords;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary form of a word-level transcript, used for {@code challengeJobs.response_data} and the
+ * {@code transcript-responses} topic.
+ * <pre>
+ * magic 0xB7, version 1
+ * text        varint length + UTF-8
+ * dictionary  varint count, then varint length + UTF-8 per distinct word
+ * words       varint count, then per word:
+ *             varint dictionary index, zigzag varint (start - previous end), zigzag varint (end - start),
+ *             confidence quantized to one byte (0..255)
+ * </pre>
+ * The magic byte can never start a JSON document, so {@link #isEncoded} tells old JSON payloads apart.
+ */
+public class TranscriptCodec {
+    private static final int MAGIC = 0xB7;
+    private static final int VERSION = 1;
+
+    private TranscriptCodec() {
+    }
+
+    public static boolean isEncoded(byte[] data) {
+        return data != null && data.length > 1 && (data[0] & 0xFF) == MAGIC;
+    }
+
+    public static byte[] encode(TranscriptResult result) {
+        TranscriptWords words = result.getWords() != null ? result.getWords() : new TranscriptWords(0);
+        int count = words.size();
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        ByteArrayOutputStream dictionaryBytes = new ByteArrayOutputStream();
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            String word = words.text(i) != null ? words.text(i) : "";
+            Integer id = dictionary.get(word);
+            if (id == null) {
+                id = dictionary.size();
+                dictionary.put(word, id);
+                writeString(dictionaryBytes, word);
+            }
+            ids[i] = id;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + dictionaryBytes.size() + count * 5);
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeString(out, result.getText() != null ? result.getText() : "");
+        writeVarint(out, dictionary.size());
+        out.writeBytes(dictionaryBytes.toByteArray());
+        writeVarint(out, count);
+        int previousEnd = 0;
+        for (int i = 0; i < count; i++) {
+            int start = words.start(i);
+            int end = words.end(i);
+            writeVarint(out, ids[i]);
+            // words can overlap or go back in time a little, hence zigzag for the gap
+            writeVarint(out, zigzag(start - previousEnd));
+            writeVarint(out, zigzag(end - start));
+            out.write(Math.round(Math.max(0f, Math.min(1f, words.confidence(i))) * 255));
+            previousEnd = end;
+        }
+        return out.toByteArray();
+    }
+
+    public static TranscriptResult decode(byte[] data) throws IOException {
+        if (!isEncoded(data)) {
+            throw new IOException("Not an encoded transcript");
+        }
+        Reader in = new Reader(data);
+        in.position = 1;
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported transcript encoding version " + version);
+        }
+        String text = in.readString();
+        String[] dictionary = new String[in.readCount()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readString();
+        }
+        int count = in.readCount();
+        TranscriptWords words = new TranscriptWords(count);
+        int previousEnd = 0;
+        for (int i = 0; i < count; i++) {
+            int id = in.readVarint();
+            if (id < 0 || id >= dictionary.length) {
+                throw new IOException("Malformed word reference in transcript data");
+            }
+            String word = dictionary[id];
+            int start = previousEnd + unzigzag(in.readVarint());
+            int end = start + unzigzag(in.readVarint());
+            float confidence = in.readByte() / 255f;
+            words.add(word, start, end, confidence);
+            previousEnd = end;
+        }
+        TranscriptResult result = new TranscriptResult();
+        result.setStatus("completed");
+        result.setText(text);
+        result.setWords(words);
+        return result;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        private int readByte() throws IOException {
+            if (position >= data.length) {
+                throw new IOException("Truncated transcript data");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        private int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in transcript data");
+        }
+
+        // every entry takes at least one byte, so a count beyond the remaining bytes is corrupt, not a reason to allocate
+        private int readCount() throws IOException {
+            int count = readVarint();
+            if (count < 0 || count > data.length - position) {
+                throw new IOException("Malformed count in transcript data");
+            }
+            return count;
+        }
+
+        private String readString() throws IOException {
+            int length = readVarint();
+            if (length < 0 || position + length > data.length) {
+                throw new IOException("Truncated transcript data");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.audioservice.utils;
+
+import com.example.audioservice.model.DTO.TranscriptResult;
+import com.example.audioservice.model.DTO.TranscriptWords;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Single-pass reader for provider transcript responses. Only id, status, text, error and the word timings are kept;
+ * everything else in the (multi-megabyte) body is skipped token by token without building a tree.
+ */
+public class TranscriptJsonParser {
+
+    private TranscriptJsonParser() {
+    }
+
+    public static TranscriptResult parse(JsonFactory factory, InputStream body) throws IOException {
+        TranscriptResult result = new TranscriptResult();
+        try (JsonParser parser = factory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Transcript response is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> result.setId(textOrNull(parser, value));
+                    case "status" -> result.setStatus(textOrNull(parser, value));
+                    case "text" -> result.setText(textOrNull(parser, value));
+                    case "error" -> result.setError(textOrNull(parser, value));
+                    case "words" -> result.setWords(value == JsonToken.START_ARRAY ? readWords(parser) : null);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return result;
+    }
+
+    private static TranscriptWords readWords(JsonParser parser) throws IOException {
+        TranscriptWords words = new TranscriptWords();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String text = null;
+            int start = 0;
+            int end = 0;
+            float confidence = 0f;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "text" -> text = textOrNull(parser, value);
+                    case "start" -> start = parser.getValueAsInt();
+                    case "end" -> end = parser.getValueAsInt();
+                    case "confidence" -> confidence = (float) parser.getValueAsDouble();
+                    default -> parser.skipChildren();
+                }
+            }
+            words.add(text != null ? text : "", start, end, confidence);
+        }
+        return words;
+    }
+
+    private static String textOrNull(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+}
@@ -0,0 +1,63 @@
+-- Schema changes the entities expect, oldest first. spring.jpa.hibernate.ddl-auto is none, so apply each block by
+-- hand before deploying the code that needs it. Names are the physical ones: Spring's default naming strategy turns
+-- camelCase table and column names into snake_case.
+
+-- lesson: ffprobe result of the lesson audio, cached so clips can be stream-copied
+ALTER TABLE lesson ADD COLUMN IF NOT EXISTS audio_codec VARCHAR(255);
+ALTER TABLE lesson ADD COLUMN IF NOT EXISTS audio_sample_rate INTEGER;
+ALTER TABLE lesson ADD COLUMN IF NOT EXISTS audio_bit_rate BIGINT;
+
+-- challenge / lesson: fingerprint of the cut clip and SHA-256 of the lesson audio, so unchanged clips are not re-cut
+ALTER TABLE challenge ADD COLUMN IF NOT EXISTS segment_fingerprint VARCHAR(64);
+ALTER TABLE lesson ADD COLUMN IF NOT EXISTS audio_hash VARCHAR(64);
+
+-- segmentation_jobs: asynchronous segmentation runs of a lesson, with progress
+CREATE TABLE IF NOT EXISTS segmentation_jobs (
+    id                 BIGSERIAL PRIMARY KEY,
+    job_id             VARCHAR(255) NOT NULL UNIQUE,
+    lesson_id          BIGINT       NOT NULL,
+    status             VARCHAR(255) NOT NULL,
+    total_segments     INTEGER,
+    completed_segments INTEGER,
+    failed_segments    INTEGER,
+    result             TEXT,
+    error              TEXT,
+    created_at         TIMESTAMP    NOT NULL,
+    updated_at         TIMESTAMP,
+    version            BIGINT       NOT NULL DEFAULT 0
+);
+-- at most one PENDING or PROCESSING job per lesson, so concurrent submits cannot both insert one
+CREATE UNIQUE INDEX IF NOT EXISTS segmentation_jobs_active_lesson
+    ON segmentation_jobs (lesson_id) WHERE status IN ('PENDING', 'PROCESSING');
+-- stale PROCESSING jobs are looked up by the reclaimer
+CREATE INDEX IF NOT EXISTS segmentation_jobs_status_updated_at ON segmentation_jobs (status, updated_at);
+
+-- transcript_jobs: transcript id assigned by the ASR provider, and the challenge job waiting for the result
+ALTER TABLE transcript_jobs ADD COLUMN IF NOT EXISTS provider_transcript_id VARCHAR(255);
+ALTER TABLE transcript_jobs ADD COLUMN IF NOT EXISTS challenge_job_id VARCHAR(255);
+-- webhooks look jobs up by the provider's transcript id
+CREATE INDEX IF NOT EXISTS transcript_jobs_provider_transcript_id ON transcript_jobs (provider_transcript_id);
+
+-- challenge_jobs: transcript result in TranscriptCodec form, replacing the JSON payload
+ALTER TABLE challenge_jobs ADD COLUMN IF NOT EXISTS response_data BYTEA;
+
+-- transcript_cache: finished transcripts keyed by audio content and transcription options, reused across lessons
+CREATE TABLE IF NOT EXISTS transcript_cache (
+    id                     BIGSERIAL PRIMARY KEY,
+    audio_hash             VARCHAR(64)  NOT NULL,
+    options_hash           VARCHAR(64)  NOT NULL,
+    transcript_data        BYTEA        NOT NULL,
+    text                   TEXT,
+    provider_transcript_id VARCHAR(255),
+    created_at             TIMESTAMP    NOT NULL
+);
+CREATE UNIQUE INDEX IF NOT EXISTS transcript_cache_audio_options
+    ON transcript_cache (audio_hash, options_hash);
+-- transcript_jobs: SHA-256 of the audio, so the finished transcript can be stored in transcript_cache
+ALTER TABLE transcript_jobs ADD COLUMN IF NOT EXISTS audio_hash VARCHAR(64);
+
+-- optimistic-lock version of the job tables, bumped by every save and every guarded update
+ALTER TABLE transcript_jobs ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE challenge_jobs ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+-- for segmentation_jobs tables created before the column was part of the CREATE TABLE above
+ALTER TABLE segmentation_jobs ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,111 @@
+package com.example.audioservice.benchmark;
+
+import com.example.audioservice.model.Response.AnswerCheckResult;
+import com.example.audioservice.model.Response.PrefixCheckResult;
+import com.example.audioservice.utils.AnswerMatcher;
+import com.example.audioservice.utils.TextSegmentationUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks one 15-word answer with the previous map-based result and with the typed result. {@link #main} runs with the
+ * GC profiler; compare {@code gc.alloc.rate.norm} (bytes per check) between the benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnswerCheckBenchmark {
+    private static final String SENTENCE =
+            "On the 3rd of May I'm going to the market at 5 p.m. because it's cheaper then.";
+
+    private List<List<String>> segments;
+    private AnswerMatcher matcher;
+    private List<String> answers;
+    private List<String> typedSoFar;
+
+    @Setup
+    public void setUp() {
+        segments = TextSegmentationUtil.segmentSentence(SENTENCE);
+        matcher = new AnswerMatcher(1L, SENTENCE, segments);
+        answers = new ArrayList<>();
+        for (List<String> segment : segments) {
+            answers.add(segment.get(0).toLowerCase());
+        }
+        // one wrong word, so both paths walk every position
+        answers.set(4, "wrong");
+        typedSoFar = new ArrayList<>(answers.subList(0, 10));
+        typedSoFar.set(9, typedSoFar.get(9).substring(0, (typedSoFar.get(9).length() + 1) / 2));
+    }
+
+    @Benchmark
+    public Map<String, Object> mapResult() {
+        Map<String, Object> result = detailedResult(segments, answers);
+        result.put("challengeId", 1L);
+        result.put("lessonId", 1L);
+        result.put("fullSentence", SENTENCE);
+        result.put("isPass", (Boolean) result.get("allCorrect") ? 1 : -1);
+        return result;
+    }
+
+    @Benchmark
+    public AnswerCheckResult typedResult() {
+        return matcher.check(answers, false);
+    }
+
+    @Benchmark
+    public AnswerCheckResult typedResultWithAnswers() {
+        return matcher.check(answers, true);
+    }
+
+    // one keystroke on the check socket: ten words typed, the last one half done
+    @Benchmark
+    public PrefixCheckResult keystroke() {
+        return matcher.checkPrefix(typedSoFar);
+    }
+
+    // the result builder this benchmark replaced
+    private static Map<String, Object> detailedResult(List<List<String>> wordSegments, List<String> userAnswers) {
+        Map<String, Object> result = new HashMap<>();
+        List<Map<String, Object>> wordResults = new ArrayList<>();
+        boolean allCorrect = true;
+        for (int i = 0; i < Math.max(wordSegments.size(), userAnswers.size()); i++) {
+            Map<String, Object> wordResult = new HashMap<>();
+            wordResult.put("index", i);
+            wordResult.put("userAnswer", i < userAnswers.size() ? userAnswers.get(i) : "");
+            if (i < wordSegments.size()) {
+                List<String> acceptableAnswers = wordSegments.get(i);
+                wordResult.put("acceptableAnswers", acceptableAnswers);
+                String userAnswer = i < userAnswers.size() ? userAnswers.get(i).trim() : "";
+                boolean isCorrect = acceptableAnswers.stream().anyMatch(answer -> answer.equalsIgnoreCase(userAnswer));
+                wordResult.put("correct", isCorrect);
+                allCorrect &= isCorrect;
+            } else {
+                wordResult.put("acceptableAnswers", Arrays.asList());
+                wordResult.put("correct", false);
+                allCorrect = false;
+            }
+            wordResults.add(wordResult);
+        }
+        result.put("allCorrect", allCorrect);
+        result.put("wordResults", wordResults);
+        result.put("totalWords", wordSegments.size());
+        result.put("correctWords", wordResults.stream().mapToInt(wr -> (Boolean) wr.get("correct") ? 1 : 0).sum());
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AnswerCheckBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.audioservice.benchmark;
+
+import com.example.audioservice.utils.NearMiss;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typo test (edit distance within 2) of the wrong words of one check, bit-parallel kernel against a full
+ * dynamic-programming table. {@link #main} adds the GC profiler; the kernel should show no allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NearMissBenchmark {
+    private static final int MAX_DISTANCE = 2;
+    // acceptable answer, typed word
+    private static final String[][] PAIRS = {
+            {"because", "becuase"}, {"market", "markets"}, {"cheaper", "cheap"}, {"going", "gonig"},
+            {"remember", "rememeber"}, {"meeting", "meting"}, {"century", "country"}, {"welcome", "wellcome"},
+            {"brother", "bother"}, {"teacher", "teach"}, {"then", "than"}, {"whether", "weather"},
+            {"finished", "finnished"}, {"runners", "runner"}, {"train", "rain"}, {"understand", "under"}
+    };
+
+    private NearMiss.Pattern[] patterns;
+    private String[] typed;
+
+    @Setup
+    public void setUp() {
+        patterns = new NearMiss.Pattern[PAIRS.length];
+        typed = new String[PAIRS.length];
+        for (int i = 0; i < PAIRS.length; i++) {
+            patterns[i] = NearMiss.compile(PAIRS[i][0]);
+            typed[i] = PAIRS[i][1];
+        }
+    }
+
+    @Benchmark
+    public int bitParallel() {
+        int typos = 0;
+        for (int i = 0; i < patterns.length; i++) {
+            typos += NearMiss.distance(patterns[i], typed[i], MAX_DISTANCE) <= MAX_DISTANCE ? 1 : 0;
+        }
+        return typos;
+    }
+
+    @Benchmark
+    public int naiveTable() {
+        int typos = 0;
+        for (int i = 0; i < patterns.length; i++) {
+            typos += levenshtein(PAIRS[i][0], typed[i]) <= MAX_DISTANCE ? 1 : 0;
+        }
+        return typos;
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                d[i][j] = Math.min(substitution, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NearMissBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.audioservice.benchmark;
+
+import com.example.audioservice.utils.TextSegmentationUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the answer keys of a 1,000-sentence lesson, as an answer-key import does, with the previous regex
+ * segmentation as baseline. Scores are lessons per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextSegmentationBenchmark {
+    private static final String[] SAMPLES = {
+            "On the 3rd of May I'm going to the market at 5 p.m. because it's cheaper then.",
+            "She can't remember whether the meeting starts at 10 or at 11 o'clock.",
+            "The 21st century began 100 years after the 20th, not in 1999.",
+            "You're welcome to stay, but that's the last train, and it won't wait!",
+            "He finished 2nd out of 250 runners; his brother came 105th.",
+            "Why don't we ask the teacher what the word means?"
+    };
+
+    private List<String> sentences;
+
+    @Setup
+    public void setUp() {
+        sentences = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            sentences.add(SAMPLES[i % SAMPLES.length]);
+        }
+    }
+
+    @Benchmark
+    public int scanner() {
+        int words = 0;
+        for (String sentence : sentences) {
+            words += TextSegmentationUtil.segmentSentence(sentence).size();
+        }
+        return words;
+    }
+
+    @Benchmark
+    public int regex() {
+        int words = 0;
+        for (String sentence : sentences) {
+            words += RegexSegmentation.segmentSentence(sentence).size();
+        }
+        return words;
+    }
+
+    // the segmentation this benchmark replaced, minus its ordinal bugs (it threw on "100th")
+    private static final class RegexSegmentation {
+        private static final Pattern WORD_PATTERN = Pattern.compile("\\b\\w+(?:['’]\\w+)*(?:[.!?,:;])?");
+        private static final Map<String, List<String>> FORMS = new HashMap<>();
+        private static final String[] BASIC = {
+                "zero", "one", "two", "three", "four", "five", "six", "seven", "eight", "nine", "ten", "eleven",
+                "twelve", "thirteen", "fourteen", "fifteen", "sixteen", "seventeen", "eighteen", "nineteen"
+        };
+        private static final String[] TENS = {
+                "", "", "twenty", "thirty", "forty", "fifty", "sixty", "seventy", "eighty", "ninety"
+        };
+        private static final String[] ORDINAL_UP_TO_20 = {
+                "zeroth", "first", "second", "third", "fourth", "fifth", "sixth", "seventh", "eighth", "ninth",
+                "tenth", "eleventh", "twelfth", "thirteenth", "fourteenth", "fifteenth", "sixteenth", "seventeenth",
+                "eighteenth", "nineteenth", "twentieth"
+        };
+        private static final String[] TENS_ORDINAL = {
+                "", "", "twentieth", "thirtieth", "fortieth", "fiftieth", "sixtieth", "seventieth", "eightieth",
+                "ninetieth"
+        };
+
+        static {
+            for (String[] forms : new String[][]{
+                    {"1st", "1st.", "first", "first."}, {"2nd", "2nd.", "second", "second."},
+                    {"3rd", "3rd.", "third", "third."}, {"4th", "4th.", "fourth", "fourth."},
+                    {"5th", "5th.", "fifth", "fifth."}, {"26th", "26th.", "twenty-sixth", "twenty-sixth."},
+                    {"31st", "31st.", "thirty-first", "thirty-first."}, {"can't", "cannot"}, {"won't", "will not"},
+                    {"I'm", "I am"}, {"you're", "you are"}, {"it's", "it is"}, {"that's", "that is"},
+                    {"o'clock", "o clock"}, {"a.m.", "am", "AM"}, {"p.m.", "pm", "PM"}}) {
+                for (String form : forms) {
+                    FORMS.put(form.toLowerCase(), Arrays.asList(forms));
+                }
+            }
+        }
+
+        static List<List<String>> segmentSentence(String fullSentence) {
+            List<List<String>> segments = new ArrayList<>();
+            Matcher matcher = WORD_PATTERN.matcher(fullSentence);
+            while (matcher.find()) {
+                String word = matcher.group();
+                if (!word.isBlank()) {
+                    segments.add(alternatives(word));
+                }
+            }
+            return segments;
+        }
+
+        private static List<String> alternatives(String word) {
+            boolean endsWithDot = word.endsWith(".");
+            String baseWord = endsWithDot ? word.substring(0, word.length() - 1) : word;
+            String lcBaseWord = baseWord.toLowerCase();
+            if (FORMS.containsKey(word.toLowerCase())) {
+                return new ArrayList<>(FORMS.get(word.toLowerCase()));
+            }
+            if (endsWithDot && FORMS.containsKey(lcBaseWord)) {
+                return new ArrayList<>(FORMS.get(lcBaseWord));
+            }
+            if (isNumber(word) || isOrdinal(word) || (endsWithDot && (isNumber(baseWord) || isOrdinal(baseWord)))) {
+                String number = endsWithDot ? baseWord : word;
+                List<String> results = new ArrayList<>();
+                results.add(number);
+                String cardinal = cardinal(number);
+                if (cardinal != null) {
+                    results.add(cardinal);
+                }
+                String ordinal = ordinal(number);
+                if (ordinal != null) {
+                    results.add(ordinal);
+                }
+                return results;
+            }
+            List<String> alternatives = new ArrayList<>();
+            alternatives.add(word);
+            if (!word.equals(word.toLowerCase())) {
+                alternatives.add(word.toLowerCase());
+            }
+            if (!word.equals(word.toUpperCase())) {
+                alternatives.add(word.toUpperCase());
+            }
+            if (endsWithDot) {
+                alternatives.add(baseWord);
+                if (!baseWord.equals(lcBaseWord)) {
+                    alternatives.add(lcBaseWord);
+                }
+                if (!baseWord.equals(baseWord.toUpperCase())) {
+                    alternatives.add(baseWord.toUpperCase());
+                }
+            }
+            return alternatives;
+        }
+
+        private static String cardinal(String number) {
+            try {
+                int n = Integer.parseInt(number.replaceAll("(?i)(st|nd|rd|th)", ""));
+                if (n < 0 || n > 999) return null;
+                if (n < 20) return BASIC[n];
+                if (n < 100) return TENS[n / 10] + (n % 10 > 0 ? "-" + BASIC[n % 10] : "");
+                String result = BASIC[n / 100] + " hundred";
+                return n % 100 > 0 ? result + " and " + cardinal(String.valueOf(n % 100)) : result;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static String ordinal(String ordinal) {
+            if (!isOrdinal(ordinal)) {
+                return null;
+            }
+            try {
+                int n = Integer.parseInt(ordinal.replaceAll("(?i)(st|nd|rd|th|\\.)", ""));
+                if (n > 999) return null;
+                return ordinal(n);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static String ordinal(int n) {
+            if (n <= 20) return ORDINAL_UP_TO_20[n];
+            if (n < 100) return n % 10 == 0 ? TENS_ORDINAL[n / 10] : TENS[n / 10] + "-" + ORDINAL_UP_TO_20[n % 10];
+            String base = BASIC[n / 100] + " hundred";
+            return n % 100 == 0 ? base + "th" : base + " and " + ordinal(n % 100);
+        }
+
+        private static boolean isNumber(String str) {
+            return str.matches("\\d+");
+        }
+
+        private static boolean isOrdinal(String str) {
+            return str.matches("(?i)\\d{1,3}(st|nd|rd|th)");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextSegmentationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
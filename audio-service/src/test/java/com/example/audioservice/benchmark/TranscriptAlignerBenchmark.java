@@ -0,0 +1,128 @@
+package com.example.audioservice.benchmark;
+
+import com.example.audioservice.model.DTO.TranscriptWords;
+import com.example.audioservice.utils.TranscriptAligner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aligns the sentences of a 10k-word lesson against its transcript, with the previous start-index scan as baseline.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.audioservice.benchmark.TranscriptAlignerBenchmark} or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TranscriptAlignerBenchmark {
+    private static final int TRANSCRIPT_WORDS = 10_000;
+    private static final TranscriptAligner.Tolerance TOLERANCE = new TranscriptAligner.Tolerance(32, 16_000_000, 0.5);
+
+    private TranscriptWords words;
+    private List<String> sentences;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[2_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = "w" + Integer.toString(i, 36);
+        }
+        // a few very common words, like "the" and "a" in real speech
+        String[] common = {"the", "a", "to", "and", "of", "is", "it", "you"};
+
+        words = new TranscriptWords(TRANSCRIPT_WORDS);
+        String[] plain = new String[TRANSCRIPT_WORDS];
+        for (int i = 0; i < TRANSCRIPT_WORDS; i++) {
+            plain[i] = random.nextInt(3) == 0 ? common[random.nextInt(common.length)]
+                    : vocabulary[random.nextInt(vocabulary.length)];
+            String spoken = i % 11 == 10 ? capitalize(plain[i]) + "," : plain[i];
+            words.add(spoken, i * 400, i * 400 + 350, 0.9f);
+        }
+
+        sentences = new ArrayList<>();
+        int position = 0;
+        while (position < TRANSCRIPT_WORDS) {
+            int length = Math.min(8 + random.nextInt(18), TRANSCRIPT_WORDS - position);
+            StringBuilder sentence = new StringBuilder();
+            for (int i = position; i < position + length; i++) {
+                sentence.append(i == position ? capitalize(plain[i]) : plain[i]).append(' ');
+            }
+            // roughly one sentence in ten was misheard and does not occur verbatim
+            if (random.nextInt(10) == 0) {
+                sentence.append("mumbled");
+            }
+            sentences.add(sentence.toString().trim() + ".");
+            position += length;
+        }
+    }
+
+    @Benchmark
+    public TranscriptAligner.Span[] indexed() {
+        return new TranscriptAligner(words).align(sentences);
+    }
+
+    // exact pass plus banded alignment of the misheard sentences
+    @Benchmark
+    public TranscriptAligner.Span[] tolerant() {
+        return new TranscriptAligner(words).align(sentences, TOLERANCE);
+    }
+
+    @Benchmark
+    public int[] scan() {
+        return scanAlign(sentences, words);
+    }
+
+    // the alignment this benchmark replaced: every start index, regex normalization on every comparison
+    private static int[] scanAlign(List<String> sentences, TranscriptWords words) {
+        int[] starts = new int[sentences.size()];
+        boolean[] used = new boolean[words.size()];
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < sentences.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Integer.compare(split(sentences.get(b)).length, split(sentences.get(a)).length));
+        for (int index : order) {
+            String[] target = split(sentences.get(index));
+            starts[index] = -1;
+            for (int start = 0; start <= words.size() - target.length; start++) {
+                boolean match = true;
+                for (int i = 0; i < target.length && match; i++) {
+                    match = !used[start + i]
+                            && words.text(start + i).toLowerCase().replaceAll("[^a-zA-Z0-9]", "").equals(target[i]);
+                }
+                if (match) {
+                    for (int i = 0; i < target.length; i++) {
+                        used[start + i] = true;
+                    }
+                    starts[index] = start;
+                    break;
+                }
+            }
+        }
+        return starts;
+    }
+
+    private static String[] split(String text) {
+        return text.toLowerCase().replaceAll("[^a-zA-Z0-9\\s]", "").trim().split("\\s+");
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TranscriptAlignerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
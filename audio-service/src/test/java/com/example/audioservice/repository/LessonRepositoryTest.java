@@ -0,0 +1,95 @@
+package com.example.audioservice.repository;
+
+import com.example.audioservice.entity.ChallengeEntity;
+import com.example.audioservice.entity.LessonEntity;
+import com.example.audioservice.entity.SectionEntity;
+import com.example.audioservice.model.DTO.LessonChallengeId;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the lesson listings against N+1: each read is one statement however many lessons and challenges there are,
+ * and loading lessons does not load their challenges.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class LessonRepositoryTest {
+    private static final int LESSONS = 5;
+    private static final int CHALLENGES_PER_LESSON = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    private Statistics statistics;
+    private Long sectionId;
+    private Long emptyLessonId;
+
+    @BeforeEach
+    void setUp() {
+        SectionEntity section = entityManager.persist(SectionEntity.builder().title("Section").build());
+        sectionId = section.getId();
+        for (int l = 0; l < LESSONS; l++) {
+            LessonEntity lesson = entityManager.persist(
+                    LessonEntity.builder().title("Lesson " + l).sectionEntity(section).build());
+            for (int c = 1; c <= CHALLENGES_PER_LESSON; c++) {
+                entityManager.persist(ChallengeEntity.builder()
+                        .fullSentence("Sentence " + c)
+                        .orderIndex(c)
+                        .lesson(lesson)
+                        .build());
+            }
+        }
+        emptyLessonId = entityManager.persist(
+                LessonEntity.builder().title("Empty").sectionEntity(section).build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void readsChallengeIdsOfAllLessonsInOneStatement() {
+        List<LessonChallengeId> rows = lessonRepository.findAllChallengeIds();
+
+        // a row per challenge plus one for the lesson without challenges
+        assertEquals(LESSONS * CHALLENGES_PER_LESSON + 1, rows.size());
+        assertTrue(rows.stream().anyMatch(row -> row.getLessonId().equals(emptyLessonId) && row.getChallengeId() == null));
+        // the catalog groups lessons by section from these rows, without joining the section
+        assertTrue(rows.stream().allMatch(row -> row.getSectionId().equals(sectionId)));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void readsChallengeIdsOfASectionInOneStatement() {
+        List<LessonChallengeId> rows = lessonRepository.findChallengeIdsBySectionId(sectionId);
+
+        assertEquals(LESSONS * CHALLENGES_PER_LESSON + 1, rows.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void loadingLessonsDoesNotLoadChallenges() {
+        List<LessonEntity> lessons = lessonRepository.findAllBySectionEntity_Id(sectionId);
+
+        assertEquals(LESSONS + 1, lessons.size());
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals(0, statistics.getEntityStatistics(ChallengeEntity.class.getName()).getLoadCount());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.audioservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the bit-parallel distance against a plain dynamic-programming Levenshtein, including the full 64-bit
+ * pattern and the early cutoff, and the word-form rule used to tell inflections from wrong words.
+ */
+class NearMissTest {
+    private static final String ALPHABET = "abcde";
+
+    @Test
+    void distanceMatchesPlainDynamicProgrammingOnRandomPairs() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            String form = randomWord(random, 1 + random.nextInt(12));
+            String text = randomWord(random, random.nextInt(14));
+            int expected = levenshtein(form, text);
+            NearMiss.Pattern pattern = NearMiss.compile(form);
+
+            assertEquals(expected, NearMiss.distance(pattern, text, 64), form + " / " + text);
+        }
+    }
+
+    @Test
+    void distanceStopsAtTheLimit() {
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            String form = randomWord(random, 1 + random.nextInt(12));
+            String text = randomWord(random, random.nextInt(14));
+            int maxDistance = random.nextInt(4);
+            int expected = Math.min(levenshtein(form, text), maxDistance + 1);
+
+            assertEquals(expected, NearMiss.distance(NearMiss.compile(form), text, maxDistance),
+                    form + " / " + text + " within " + maxDistance);
+        }
+    }
+
+    @Test
+    void equalLengthWordsThatDifferEverywhereAreCutOff() {
+        // same length, so only the running score can give up early
+        NearMiss.Pattern pattern = NearMiss.compile("abcdefgh");
+
+        assertEquals(3, NearMiss.distance(pattern, "stuvwxyz", 2));
+        assertEquals(8, NearMiss.distance(pattern, "stuvwxyz", 8));
+    }
+
+    @Test
+    void sixtyFourCharacterPatternUsesTheWholeWord() {
+        Random random = new Random(3);
+        String form = randomWord(random, NearMiss.MAX_PATTERN_LENGTH);
+        NearMiss.Pattern pattern = NearMiss.compile(form);
+        assertNotNull(pattern);
+
+        assertEquals(0, NearMiss.distance(pattern, form, 2));
+        String substituted = form.substring(0, 63) + "z";
+        assertEquals(1, NearMiss.distance(pattern, substituted, 2));
+        String firstDropped = form.substring(1);
+        assertEquals(1, NearMiss.distance(pattern, firstDropped, 2));
+        String appended = form + "zz";
+        assertEquals(2, NearMiss.distance(pattern, appended, 2));
+        for (int i = 0; i < 200; i++) {
+            String text = mutate(random, form, random.nextInt(6));
+            assertEquals(levenshtein(form, text), NearMiss.distance(pattern, text, 64), text);
+        }
+    }
+
+    @Test
+    void compileRejectsEmptyAndOverlongForms() {
+        assertNull(NearMiss.compile(""));
+        assertNull(NearMiss.compile("a".repeat(NearMiss.MAX_PATTERN_LENGTH + 1)));
+    }
+
+    @Test
+    void inflectionsAreOtherForms() {
+        assertTrue(NearMiss.isOtherForm("walked", "walker"));
+        assertTrue(NearMiss.isOtherForm("walk", "walking"));
+        assertTrue(NearMiss.isOtherForm("try", "tries"));
+        assertTrue(NearMiss.isOtherForm("tried", "try"));
+        assertTrue(NearMiss.isOtherForm("make", "making"));
+    }
+
+    @Test
+    void shortStemsAndUnrelatedWordsAreNotOtherForms() {
+        assertFalse(NearMiss.isOtherForm("go", "goes"));
+        assertFalse(NearMiss.isOtherForm("at", "ate"));
+        assertFalse(NearMiss.isOtherForm("walk", "walk"));
+        assertFalse(NearMiss.isOtherForm("walked", "walrus"));
+        assertFalse(NearMiss.isOtherForm("house", "horse"));
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+
+    private static String mutate(Random random, String word, int edits) {
+        StringBuilder text = new StringBuilder(word);
+        for (int i = 0; i < edits && text.length() > 0; i++) {
+            int at = random.nextInt(text.length());
+            switch (random.nextInt(3)) {
+                case 0 -> text.setCharAt(at, 'z');
+                case 1 -> text.deleteCharAt(at);
+                default -> text.insert(at, 'y');
+            }
+        }
+        return text.toString();
+    }
+}
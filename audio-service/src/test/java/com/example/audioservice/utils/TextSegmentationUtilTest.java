@@ -0,0 +1,100 @@
+package com.example.audioservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the answer keys produced by the character scanner: token boundaries, the forms accepted at each position,
+ * and the number spellings.
+ */
+class TextSegmentationUtilTest {
+
+    @Test
+    void contractionsStayOneWordWithEitherApostrophe() {
+        List<List<String>> segments = TextSegmentationUtil.segmentSentence("I can't go, you can’t stay");
+
+        assertEquals(6, segments.size());
+        assertEquals(List.of("can't", "cannot"), segments.get(1));
+        assertEquals("can’t", segments.get(4).get(0));
+        assertEquals(List.of("o'clock", "o clock"),
+                TextSegmentationUtil.segmentSentence("It is five o'clock").get(3));
+        assertEquals("don’t", TextSegmentationUtil.segmentSentence("I don’t know").get(1).get(0));
+    }
+
+    @Test
+    void trailingApostropheIsNotPartOfTheWord() {
+        List<List<String>> segments = TextSegmentationUtil.segmentSentence("the dogs' bowls");
+
+        assertEquals(3, segments.size());
+        assertEquals("dogs", segments.get(1).get(0));
+    }
+
+    @Test
+    void dottedAbbreviationsAreOneWord() {
+        List<List<String>> segments = TextSegmentationUtil.segmentSentence("We met at 7 a.m. in the U.S.");
+
+        assertEquals(8, segments.size());
+        assertEquals(List.of("a.m.", "am", "AM"), segments.get(4));
+        assertEquals(List.of("U.S.", "u.s.", "U.S", "u.s"), segments.get(7));
+    }
+
+    @Test
+    void ordinalsAboveOneHundredAreSpelledOut() {
+        List<List<String>> segments = TextSegmentationUtil.segmentSentence("100th 105th 120th");
+
+        assertEquals(List.of("100th", "one hundred", "one hundredth"), segments.get(0));
+        assertEquals(List.of("105th", "one hundred and five", "one hundred and fifth"), segments.get(1));
+        assertEquals(List.of("120th", "one hundred and twenty", "one hundred and twentieth"), segments.get(2));
+    }
+
+    @Test
+    void numbersAreSpelledOutUpTo999() {
+        assertEquals(List.of("7", "seven"), TextSegmentationUtil.segmentSentence("7").get(0));
+        assertEquals(List.of("42", "forty-two"), TextSegmentationUtil.segmentSentence("42").get(0));
+        assertEquals(List.of("999", "nine hundred and ninety-nine"),
+                TextSegmentationUtil.segmentSentence("999").get(0));
+        assertEquals(List.of("21st", "twenty-one", "twenty-first"),
+                TextSegmentationUtil.segmentSentence("21st").get(0));
+    }
+
+    @Test
+    void numbersAboveNineHundredNinetyNineKeepOnlyTheDigits() {
+        List<List<String>> segments = TextSegmentationUtil.segmentSentence("1000 people and 123456 more");
+
+        assertEquals(List.of("1000"), segments.get(0));
+        assertEquals(List.of("123456"), segments.get(3));
+    }
+
+    @Test
+    void trailingPunctuationIsAcceptedWithOrWithoutTheDot() {
+        List<List<String>> segments = TextSegmentationUtil.segmentSentence("Hello, world. Really? Yes!");
+
+        assertEquals(4, segments.size());
+        assertEquals(List.of("Hello,", "hello,", "HELLO,"), segments.get(0));
+        assertEquals(List.of("world.", "WORLD.", "world", "WORLD"), segments.get(1));
+        assertEquals(List.of("Really?", "really?", "REALLY?"), segments.get(2));
+        assertEquals(List.of("Yes!", "yes!", "YES!"), segments.get(3));
+        // a number at the end of a sentence still gets its spelling
+        assertEquals(List.of("12", "twelve"), TextSegmentationUtil.segmentSentence("I am 12.").get(2));
+    }
+
+    @Test
+    void blankSentencesHaveNoSegments() {
+        assertTrue(TextSegmentationUtil.segmentSentence(null).isEmpty());
+        assertTrue(TextSegmentationUtil.segmentSentence("  ").isEmpty());
+        assertTrue(TextSegmentationUtil.segmentSentence("... !?").isEmpty());
+    }
+
+    @Test
+    void checkAnswerAcceptsAnyFormIgnoringCase() {
+        List<List<String>> segments = TextSegmentationUtil.segmentSentence("I can't wait until 3rd.");
+
+        assertTrue(TextSegmentationUtil.checkAnswer(segments, List.of("i", "cannot", "WAIT", "until", "third")));
+        assertFalse(TextSegmentationUtil.checkAnswer(segments, List.of("i", "can", "wait", "until", "3")));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.audioservice.utils;
+
+import com.example.audioservice.model.DTO.TranscriptWords;
+import com.example.audioservice.utils.TranscriptAligner.Span;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Placement of lesson sentences in a word-level transcript.
+ */
+class TranscriptAlignerTest {
+    private static final TranscriptAligner.Tolerance TOLERANCE = new TranscriptAligner.Tolerance(2, 1_000_000, 0.5);
+
+    @Test
+    void sentencesAreFoundAtTheirExactWords() {
+        TranscriptAligner aligner = aligner("Hello there. How are you today? I am fine, thanks.");
+
+        Span[] spans = aligner.align(List.of("Hello there.", "How are you today?", "I am fine, thanks."));
+
+        assertEquals(new Span(0, 1, 1.0), spans[0]);
+        assertEquals(new Span(2, 5, 1.0), spans[1]);
+        assertEquals(new Span(6, 9, 1.0), spans[2]);
+    }
+
+    @Test
+    void casingAndPunctuationDoNotMatter() {
+        TranscriptAligner aligner = aligner("it's TEN o'clock now");
+
+        assertEquals(new Span(0, 3, 1.0), aligner.align(List.of("It's ten O'CLOCK, now!"))[0]);
+    }
+
+    @Test
+    void repeatedSentencesTakeSuccessiveOccurrences() {
+        TranscriptAligner aligner = aligner("the cat sat on the mat the cat sat on the mat");
+
+        Span[] spans = aligner.align(List.of("The cat sat on the mat.", "The cat sat on the mat."));
+
+        assertEquals(new Span(0, 5, 1.0), spans[0]);
+        assertEquals(new Span(6, 11, 1.0), spans[1]);
+    }
+
+    @Test
+    void repeatedWordsInsideASentenceMatchAtTheRightOffset() {
+        TranscriptAligner aligner = aligner("yes yes no yes yes yes no no");
+
+        Span[] spans = aligner.align(List.of("yes yes yes no"));
+
+        assertEquals(new Span(3, 6, 1.0), spans[0]);
+    }
+
+    @Test
+    void longerSentencesArePlacedFirst() {
+        TranscriptAligner aligner = aligner("the cat sat on the mat then the cat left");
+
+        // the short sentence also occurs inside the long one, but that range is taken
+        Span[] spans = aligner.align(List.of("The cat", "The cat sat on the mat"));
+
+        assertEquals(new Span(7, 8, 1.0), spans[0]);
+        assertEquals(new Span(0, 5, 1.0), spans[1]);
+    }
+
+    @Test
+    void sentenceMissingFromTheTranscriptHasNoSpan() {
+        TranscriptAligner aligner = aligner("good morning everyone see you tomorrow");
+
+        Span[] spans = aligner.align(List.of("Good morning everyone.", "Nobody said this.", "See you tomorrow."));
+
+        assertEquals(new Span(0, 2, 1.0), spans[0]);
+        assertNull(spans[1]);
+        assertEquals(new Span(3, 5, 1.0), spans[2]);
+    }
+
+    @Test
+    void sentenceWithOneWrongWordHasNoExactSpan() {
+        TranscriptAligner aligner = aligner("see you tomorrow");
+
+        assertNull(aligner.align(List.of("see you today"))[0]);
+        assertNull(aligner.align(List.of("see you tomorrow morning"))[0]);
+    }
+
+    @Test
+    void blankSentencesAndEmptyTranscriptsHaveNoSpans() {
+        Span[] spans = aligner("one two three").align(Arrays.asList("", null, "   ", "..."));
+        for (Span span : spans) {
+            assertNull(span);
+        }
+
+        assertNull(new TranscriptAligner(new TranscriptWords()).align(List.of("one two"))[0]);
+    }
+
+    @Test
+    void misheardSentenceIsAlignedBetweenAnchors() {
+        TranscriptAligner aligner = aligner("good morning everyone i would like a cop of tea see you tomorrow");
+        List<String> sentences = List.of("Good morning everyone.", "I would like a cup of tea.", "See you tomorrow.");
+
+        assertNull(aligner.align(sentences)[1]);
+        Span[] spans = aligner.align(sentences, TOLERANCE);
+
+        assertEquals(new Span(0, 2, 1.0), spans[0]);
+        assertEquals(new Span(3, 9, 6.0 / 7), spans[1]);
+        assertEquals(new Span(10, 12, 1.0), spans[2]);
+    }
+
+    @Test
+    void misheardWordAtTheEdgeStaysInsideTheSpan() {
+        TranscriptAligner aligner = aligner("helo there how are you thanks for washing");
+
+        Span[] spans = aligner.align(List.of("Hello there.", "How are you?", "Thanks for watching."), TOLERANCE);
+
+        assertEquals(new Span(0, 1, 0.5), spans[0]);
+        assertEquals(new Span(2, 4, 1.0), spans[1]);
+        assertEquals(new Span(5, 7, 2.0 / 3), spans[2]);
+    }
+
+    @Test
+    void misheardSentencesInOneStretchAreSplitBackToBack() {
+        TranscriptAligner aligner = aligner("i would like a cop of tea and a peace of cake");
+
+        Span[] spans = aligner.align(List.of("I would like a cup of tea", "and a piece of cake"), TOLERANCE);
+
+        assertEquals(new Span(0, 6, 6.0 / 7), spans[0]);
+        assertEquals(new Span(7, 11, 4.0 / 5), spans[1]);
+    }
+
+    @Test
+    void toleranceDoesNotInventMissingSentences() {
+        Span[] nothingBetween = aligner("good morning everyone see you tomorrow")
+                .align(List.of("Good morning everyone.", "Nobody said this.", "See you tomorrow."), TOLERANCE);
+        Span[] nothingMatching = aligner("good morning everyone blah blah blah see you tomorrow")
+                .align(List.of("Good morning everyone.", "Nobody said this.", "See you tomorrow."), TOLERANCE);
+
+        assertNull(nothingBetween[1]);
+        assertNull(nothingMatching[1]);
+        assertEquals(new Span(6, 8, 1.0), nothingMatching[2]);
+    }
+
+    @Test
+    void alignmentsBelowTheMinimumConfidenceAreDropped() {
+        TranscriptAligner aligner = aligner("good morning everyone i would like a cop of tea see you tomorrow");
+
+        Span[] spans = aligner.align(List.of("Good morning everyone.", "I would like a cup of tea.", "See you tomorrow."),
+                new TranscriptAligner.Tolerance(2, 1_000_000, 0.9));
+
+        assertNull(spans[1]);
+    }
+
+    @Test
+    void stretchesOverTheCellCapAreNotAligned() {
+        TranscriptAligner aligner = aligner("i would like a cop of tea");
+        List<String> sentences = List.of("I would like a cup of tea");
+        // seven sentence words need (7 + 1) rows of at least 2 * 1 + 1 cells
+        int smallestCap = 8 * 3;
+
+        assertNull(aligner.align(sentences, new TranscriptAligner.Tolerance(2, smallestCap - 1, 0.5))[0]);
+        assertEquals(new Span(0, 6, 6.0 / 7),
+                aligner.align(sentences, new TranscriptAligner.Tolerance(2, smallestCap, 0.5))[0]);
+    }
+
+    // one transcript word per whitespace-separated word, 300 ms apart
+    private static TranscriptAligner aligner(String transcript) {
+        TranscriptWords words = new TranscriptWords();
+        int time = 0;
+        for (String word : transcript.split("\\s+")) {
+            words.add(word, time, time + 250, 0.9f);
+            time += 300;
+        }
+        return new TranscriptAligner(words);
+    }
+}
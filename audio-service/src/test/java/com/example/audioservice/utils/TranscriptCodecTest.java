@@ -0,0 +1,170 @@
+package com.example.audioservice.utils;
+
+import com.example.audioservice.model.DTO.TranscriptResult;
+import com.example.audioservice.model.DTO.TranscriptWords;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trips through the binary transcript format, and rejection of data that is not in it.
+ */
+class TranscriptCodecTest {
+    // confidence is stored in one byte; rounding is off by at most half of this, plus float error
+    private static final float CONFIDENCE_STEP = 1f / 255;
+
+    @Test
+    void roundTripKeepsTextWordsAndTimings() throws IOException {
+        TranscriptWords words = new TranscriptWords();
+        words.add("Hello", 120, 480, 0.98f);
+        words.add("world", 500, 910, 0.5f);
+        words.add("again", 1500, 1900, 0f);
+        words.add("world", 2000, 2300, 1f);
+
+        TranscriptResult decoded = roundTrip(result("Hello world again world", words));
+
+        assertEquals("completed", decoded.getStatus());
+        assertEquals("Hello world again world", decoded.getText());
+        assertSameWords(words, decoded.getWords());
+    }
+
+    @Test
+    void emptyTranscriptRoundTrips() throws IOException {
+        TranscriptResult decoded = roundTrip(result(null, null));
+
+        assertEquals("", decoded.getText());
+        assertEquals(0, decoded.getWords().size());
+
+        decoded = roundTrip(result("", new TranscriptWords(0)));
+        assertEquals("", decoded.getText());
+        assertEquals(0, decoded.getWords().size());
+    }
+
+    @Test
+    void largeAndOverlappingTimestampsRoundTrip() throws IOException {
+        TranscriptWords words = new TranscriptWords();
+        // ten hours in, then a word that starts before the previous one ended, then one far beyond
+        words.add("late", 36_000_000, 36_000_400, 0.9f);
+        words.add("overlap", 36_000_100, 36_000_900, 0.8f);
+        words.add("far", Integer.MAX_VALUE - 1000, Integer.MAX_VALUE - 10, 0.7f);
+        words.add("back", 0, 5, 0.6f);
+
+        assertSameWords(words, roundTrip(result("late overlap far back", words)).getWords());
+    }
+
+    @Test
+    void nonAsciiWordsRoundTrip() throws IOException {
+        TranscriptWords words = new TranscriptWords();
+        words.add("café", 0, 300, 0.9f);
+        words.add("naïve", 300, 700, 0.9f);
+        words.add("日本語", 700, 1200, 0.9f);
+        words.add("😀", 1200, 1300, 0.9f);
+        words.add("café", 1300, 1600, 0.9f);
+        String text = "café naïve 日本語 😀 café";
+
+        TranscriptResult decoded = roundTrip(result(text, words));
+
+        assertEquals(text, decoded.getText());
+        assertSameWords(words, decoded.getWords());
+    }
+
+    @Test
+    void repeatedWordsAreStoredOnce() throws IOException {
+        TranscriptWords words = new TranscriptWords();
+        for (int i = 0; i < 1000; i++) {
+            words.add(i % 2 == 0 ? "repetition" : "again", i * 100, i * 100 + 90, 0.75f);
+        }
+
+        byte[] encoded = TranscriptCodec.encode(result("", words));
+
+        // both words once in the dictionary, then a few bytes per word
+        assertTrue(encoded.length < 1000 * 6, "encoded size " + encoded.length);
+        assertSameWords(words, TranscriptCodec.decode(encoded).getWords());
+    }
+
+    @Test
+    void confidenceIsQuantizedAndClamped() throws IOException {
+        TranscriptWords words = new TranscriptWords();
+        words.add("low", 0, 1, -0.5f);
+        words.add("mid", 1, 2, 0.333f);
+        words.add("high", 2, 3, 1.5f);
+
+        TranscriptWords decoded = roundTrip(result("", words)).getWords();
+
+        assertEquals(0f, decoded.confidence(0), 0f);
+        assertEquals(0.333f, decoded.confidence(1), CONFIDENCE_STEP);
+        assertEquals(1f, decoded.confidence(2), 0f);
+    }
+
+    @Test
+    void wrongMagicByteIsRejected() {
+        byte[] encoded = TranscriptCodec.encode(result("hello", new TranscriptWords(0)));
+        encoded[0] = '{';
+
+        assertFalse(TranscriptCodec.isEncoded(encoded));
+        assertThrows(IOException.class, () -> TranscriptCodec.decode(encoded));
+        assertFalse(TranscriptCodec.isEncoded("{\"text\":\"hello\"}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        byte[] encoded = TranscriptCodec.encode(result("hello", new TranscriptWords(0)));
+        encoded[1] = 2;
+
+        assertTrue(TranscriptCodec.isEncoded(encoded));
+        IOException error = assertThrows(IOException.class, () -> TranscriptCodec.decode(encoded));
+        assertTrue(error.getMessage().contains("version"));
+    }
+
+    @Test
+    void truncatedDataIsRejected() {
+        TranscriptWords words = new TranscriptWords();
+        words.add("one", 0, 100, 0.9f);
+        words.add("two", 150, 300, 0.8f);
+        byte[] encoded = TranscriptCodec.encode(result("one two", words));
+
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IOException.class, () -> TranscriptCodec.decode(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    void impossibleWordCountIsRejected() {
+        // magic, version, empty text, empty dictionary, then a word count far beyond the data
+        byte[] corrupt = {(byte) 0xB7, 1, 0, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+
+        assertThrows(IOException.class, () -> TranscriptCodec.decode(corrupt));
+    }
+
+    private static TranscriptResult result(String text, TranscriptWords words) {
+        TranscriptResult result = new TranscriptResult();
+        result.setStatus("completed");
+        result.setText(text);
+        result.setWords(words);
+        return result;
+    }
+
+    private static TranscriptResult roundTrip(TranscriptResult result) throws IOException {
+        byte[] encoded = TranscriptCodec.encode(result);
+        assertTrue(TranscriptCodec.isEncoded(encoded));
+        return TranscriptCodec.decode(encoded);
+    }
+
+    private static void assertSameWords(TranscriptWords expected, TranscriptWords actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.text(i), actual.text(i));
+            assertEquals(expected.start(i), actual.start(i), "start of word " + i);
+            assertEquals(expected.end(i), actual.end(i), "end of word " + i);
+            assertEquals(expected.confidence(i), actual.confidence(i), CONFIDENCE_STEP);
+        }
+    }
+}
@@ -96,6 +96,8 @@ class ChallengeService {
         'orderIndex': orderIndex,
         'lessonId': lessonId,
         'userAnswers': userAnswers,
+        // buildHintSentence needs the acceptable answers of each word
+        'includeAnswers': true,
       };
 
       final response = await _dio.post(